@@ -0,0 +1,70 @@
+package game.benchmarks;
+
+import game.Game;
+import game.entities.Entity;
+import game.entities.Pacman;
+import game.entities.ghosts.Ghost;
+import game.simulation.RandomInputPolicy;
+import game.simulation.Simulation;
+import game.utils.CollisionDetector;
+import game.utils.WallCollisionDetector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//Coût des détections de collision de Pacman (entités et murs), selon la taille du niveau
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollisionBenchmark {
+    @Param({"1", "4", "16"})
+    public int scale;
+
+    private Pacman pacman;
+    private CollisionDetector collisionDetector;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Game game = new Game(SyntheticLevels.level(scale));
+        game.setLives(Integer.MAX_VALUE);
+        game.setSeed(42); //Mêmes déplacements des fantômes effrayés d'une mesure à l'autre
+
+        //On joue quelques secondes pour que Pacman et les fantômes ne soient plus à leur position de départ
+        Simulation simulation = new Simulation(game);
+        simulation.setInputPolicy(new RandomInputPolicy(42));
+        simulation.run(600);
+
+        pacman = game.getPacman();
+        collisionDetector = game.getCollisionDetector();
+    }
+
+    @Benchmark
+    public int findPacGum() {
+        return collisionDetector.findPacGum(pacman);
+    }
+
+    @Benchmark
+    public int findSuperPacGum() {
+        return collisionDetector.findSuperPacGum(pacman);
+    }
+
+    @Benchmark
+    public Entity checkCollisionGhost() {
+        return collisionDetector.checkCollision(pacman, Ghost.class);
+    }
+
+    //Les 4 tests de murs faits par Pacman.input à chaque intersection
+    @Benchmark
+    public int checkWallCollision() {
+        int spd = pacman.getSpd();
+        int walls = 0;
+        if (WallCollisionDetector.checkWallCollision(pacman, -spd, 0)) walls++;
+        if (WallCollisionDetector.checkWallCollision(pacman, spd, 0)) walls++;
+        if (WallCollisionDetector.checkWallCollision(pacman, 0, -spd)) walls++;
+        if (WallCollisionDetector.checkWallCollision(pacman, 0, spd)) walls++;
+        return walls;
+    }
+}
@@ -0,0 +1,52 @@
+package game.benchmarks;
+
+import game.utils.CsvReader;
+import game.utils.LevelData;
+import game.utils.LevelFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Coût du chargement d'un niveau (fichier csv, ou niveau compilé projeté en mémoire) : level.csv et des niveaux synthétiques 4x et 16x plus grands
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvReaderBenchmark {
+    @Param({"1", "4", "16"})
+    public int scale;
+
+    private URI level;
+    private URI compiledLevel;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        level = SyntheticLevels.level(scale);
+        Path compiled = Files.createTempFile("level-" + scale + "x", LevelFile.EXTENSION);
+        compiled.toFile().deleteOnExit();
+        LevelFile.write(new CsvReader().readLevel(level), compiled);
+        compiledLevel = compiled.toUri();
+    }
+
+    @Benchmark
+    public List<List<String>> parseCsv() {
+        return new CsvReader().parseCsv(level);
+    }
+
+    @Benchmark
+    public LevelData readLevel() {
+        return new CsvReader().readLevel(level);
+    }
+
+    @Benchmark
+    public LevelData readCompiledLevel() {
+        return LevelFile.read(compiledLevel);
+    }
+}
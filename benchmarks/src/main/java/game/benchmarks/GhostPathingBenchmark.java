@@ -0,0 +1,81 @@
+package game.benchmarks;
+
+import game.Game;
+import game.entities.ghosts.Ghost;
+import game.simulation.RandomInputPolicy;
+import game.simulation.Simulation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Coût d'une décision de direction (GhostState.computeNextDir) pour chaque état des fantômes
+//Les fantômes sont placés sur des cases de la grille, sinon computeNextDir ne fait rien
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GhostPathingBenchmark {
+    @Param({"chase", "scatter", "frightened", "eaten", "house"})
+    public String mode;
+
+    private List<Ghost> ghosts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Game game = new Game();
+        game.setLives(Integer.MAX_VALUE);
+        game.setSeed(42); //Mêmes déplacements des fantômes effrayés d'une mesure à l'autre
+
+        //On joue jusqu'à ce que tous les fantômes soient sortis de leur maison et sur une case de la grille
+        Simulation simulation = new Simulation(game);
+        simulation.setInputPolicy(new RandomInputPolicy(42));
+        simulation.run(600);
+        while (!allOnTheGrid(game.getGhosts())) {
+            simulation.step();
+        }
+
+        ghosts = game.getGhosts();
+        for (Ghost ghost : ghosts) {
+            switch (mode) {
+                case "chase":
+                    ghost.switchChaseMode();
+                    break;
+                case "scatter":
+                    ghost.switchScatterMode();
+                    break;
+                case "frightened":
+                    ghost.switchFrightenedMode();
+                    break;
+                case "eaten":
+                    ghost.switchEatenMode();
+                    break;
+                case "house":
+                    ghost.switchHouseMode();
+                    break;
+                default:
+                    throw new IllegalArgumentException(mode);
+            }
+        }
+    }
+
+    private static boolean allOnTheGrid(List<Ghost> ghosts) {
+        for (Ghost ghost : ghosts) {
+            if (!ghost.onTheGrid() || !ghost.onGameplayWindow()) return false;
+        }
+        return true;
+    }
+
+    //Une opération = une décision pour chacun des fantômes
+    @Benchmark
+    public void computeNextDir(Blackhole bh) {
+        for (int i = 0; i < ghosts.size(); i++) {
+            Ghost ghost = ghosts.get(i);
+            ghost.getState().computeNextDir();
+            bh.consume(ghost.getxSpd());
+        }
+    }
+}
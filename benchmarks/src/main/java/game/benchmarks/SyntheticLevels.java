@@ -0,0 +1,62 @@
+package game.benchmarks;
+
+import game.Game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+//Niveaux synthétiques pour les benchmarks : le niveau par défaut répété en mosaïque, pour obtenir une surface 4x, 16x... plus grande
+public class SyntheticLevels {
+
+    //URI d'un niveau dont la surface vaut scale fois celle du niveau par défaut (scale doit être un carré : 1, 4, 16...)
+    public static URI level(int scale) {
+        if (scale == 1) return Game.getDefaultLevel();
+
+        int side = (int) Math.round(Math.sqrt(scale));
+        if (side * side != scale) {
+            throw new IllegalArgumentException("L'échelle doit être un carré : " + scale);
+        }
+
+        List<String> rows = readDefaultLevelRows();
+        try {
+            Path file = Files.createTempFile("level_x" + scale + "_", ".csv");
+            file.toFile().deleteOnExit();
+            StringBuilder sb = new StringBuilder();
+            for (int repeatY = 0; repeatY < side; repeatY++) {
+                for (String row : rows) {
+                    for (int repeatX = 0; repeatX < side; repeatX++) {
+                        sb.append(row).append(';');
+                    }
+                    sb.append('\n');
+                }
+            }
+            Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+            return file.toUri();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //Lignes du niveau par défaut, sans le séparateur final
+    private static List<String> readDefaultLevelRows() {
+        List<String> rows = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(Game.getDefaultLevel().toURL().openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.endsWith(";")) line = line.substring(0, line.length() - 1);
+                rows.add(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,36 @@
+package game.benchmarks;
+
+import game.Game;
+import game.simulation.RandomInputPolicy;
+import game.simulation.Simulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//Coût d'un tick complet (inputs + Game.update) sur le niveau par défaut et sur des niveaux 4x et 16x plus grands
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickBenchmark {
+    @Param({"1", "4", "16"})
+    public int scale;
+
+    private Simulation simulation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Game game = new Game(SyntheticLevels.level(scale));
+        game.setLives(Integer.MAX_VALUE); //La partie ne doit pas s'arrêter pendant la mesure
+        game.setSeed(42); //Mêmes déplacements des fantômes effrayés d'une mesure à l'autre
+        simulation = new Simulation(game);
+        simulation.setInputPolicy(new RandomInputPolicy(42));
+    }
+
+    @Benchmark
+    public boolean tick() {
+        return simulation.step();
+    }
+}
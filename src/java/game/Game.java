@@ -3,113 +3,276 @@ package game;
 import game.entities.*;
 import game.entities.ghosts.Blinky;
 import game.entities.ghosts.Ghost;
+import game.events.EventBus;
 import game.ghostFactory.*;
-import game.ghostStates.EatenMode;
-import game.ghostStates.FrightenedMode;
+import game.ghostStates.GhostStateMachine;
+import game.managers.DifficultyLevel;
+import game.managers.DifficultyManager;
 import game.utils.CollisionDetector;
-import game.utils.CsvReader;
 import game.utils.KeyHandler;
+import game.utils.LevelData;
+import game.utils.NavigationField;
+import game.utils.PathFinder;
+import game.utils.WallGrid;
 
 import java.awt.*;
+import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
 
 //Classe gérant le jeu en lui même
 public class Game implements Observer {
-    //Pour lister les différentes entités présentes sur la fenêtre
-    private List<Entity> objects = new ArrayList();
-    private List<Ghost> ghosts = new ArrayList();
-    private static List<Wall> walls = new ArrayList();
+    //Entités présentes sur la fenêtre, rangées par type (murs, fantômes, Pacman)
+    private final EntityRegistry entities = new EntityRegistry();
+    private PelletGrid pellets; //Les PacGums et SuperPacGums ne sont pas des entités : un bit par case de la grille du niveau
+    private WallGrid wallGrid;
 
-    private static Pacman pacman;
-    private static Blinky blinky;
+    //Champs de navigation des fantômes (sans et avec passage par la maison des fantômes), null s'ils sont désactivés
+    private NavigationField navigationField;
+    private NavigationField ghostHouseNavigationField;
 
-    private static boolean firstInput = false;
+    //Recherche de chemin partagée par les fantômes, sur les mêmes graphes que les champs de navigation
+    private PathFinder pathFinder;
+    private PathFinder ghostHousePathFinder;
 
-    public Game(){
+    private Pacman pacman;
+    private Blinky blinky;
+
+    private boolean firstInput = false;
+
+    private CollisionDetector collisionDetector;
+
+    //Événements de la partie (PacGums, SuperPacGums et fantômes mangés, mort de Pacman), regroupés par tick pour l'interface, le rendu et les simulations
+    private final EventBus events = new EventBus();
+
+    //Nombre de ticks passés par les fantômes dans chaque état depuis leur premier déplacement (indice : numéro d'état de GhostStateMachine), pour les statistiques des simulations
+    private final long[] ghostStateTicks = new long[GhostStateMachine.STATE_COUNT];
+
+    //Dimensions de la zone de jeu en pixels, déduites de la taille du niveau
+    private int width;
+    private int height;
+
+    private int score = 0;
+    private int lives = 1; //Pour l'instant, Pacman n'a qu'une vie : le premier contact avec un fantôme met fin à la partie
+    private boolean gameOver = false;
+
+    //Niveau de difficulté de la partie, qui dépend du score (vitesse des fantômes, durée des états effrayé et dispersé)
+    private DifficultyLevel difficulty = DifficultyManager.getLevelForScore(0);
+
+    //Générateur aléatoire de la partie (seule source de hasard du jeu) : deux parties de même graine, avec les mêmes inputs à chaque tick, sont identiques
+    private long seed;
+    private SplittableRandom random;
+
+    //Chargement du niveau par défaut
+    public Game() {
+        this(getDefaultLevel());
+    }
+
+    public Game(URI levelFile) {
+        this(levelFile, NavigationField.DEFAULT_MEMORY_BUDGET);
+    }
+
+    //navigationMemoryBudget : mémoire (en octets) allouée à chaque champ de navigation des fantômes, 0 pour s'en passer (les fantômes se dirigent alors à vol d'oiseau)
+    public Game(URI levelFile, long navigationMemoryBudget){
         //Initialisation du jeu
+        setSeed(new SplittableRandom().nextLong());
 
-        //Chargement du fichier csv du niveau
-        List<List<String>> data = null;
-        try {
-            data = new CsvReader().parseCsv(getClass().getClassLoader().getResource("level/level.csv").toURI());
-        } catch (URISyntaxException e) {
-            e.printStackTrace();
-        }
-        int cellsPerRow = data.get(0).size();
-        int cellsPerColumn = data.size();
+        //Chargement du niveau (fichier csv, ou niveau compilé lu sans analyse)
+        LevelData level = LevelData.load(levelFile);
+        int cellsPerRow = level.getWidth();
+        int cellsPerColumn = level.getHeight();
         int cellSize = 8;
+        width = cellsPerRow * cellSize;
+        height = cellsPerColumn * cellSize;
 
-        CollisionDetector collisionDetector = new CollisionDetector(this);
+        collisionDetector = new CollisionDetector(this);
+        pellets = new PelletGrid(cellsPerRow, cellsPerColumn, cellSize);
         AbstractGhostFactory abstractGhostFactory = null;
 
-        //Le niveau a une "grille", et pour chaque case du fichier csv, on affiche une entité parculière sur une case de la grille selon le caracère présent
+        //Le niveau a une "grille", et pour chaque case, on affiche une entité parculière sur une case de la grille selon son code (le caractère du fichier csv)
         for(int xx = 0 ; xx < cellsPerRow ; xx++) {
             for(int yy = 0 ; yy < cellsPerColumn ; yy++) {
-                String dataChar = data.get(yy).get(xx);
-                if (dataChar.equals("x")) { //Création des murs
-                    objects.add(new Wall(xx * cellSize, yy * cellSize));
-                }else if (dataChar.equals("P")) { //Création de Pacman
-                    pacman = new Pacman(xx * cellSize, yy * cellSize);
-                    pacman.setCollisionDetector(collisionDetector);
-
-                    //Enregistrement des différents observers de Pacman
-                    pacman.registerObserver(GameLauncher.getUIPanel());
-                    pacman.registerObserver(this);
-                }else if (dataChar.equals("b") || dataChar.equals("p") || dataChar.equals("i") || dataChar.equals("c")) { //Création des fantômes en utilisant les différentes factories
-                    switch (dataChar) {
-                        case "b":
-                            abstractGhostFactory = new BlinkyFactory();
-                            break;
-                        case "p":
-                            abstractGhostFactory = new PinkyFactory();
-                            break;
-                        case "i":
-                            abstractGhostFactory = new InkyFactory();
-                            break;
-                        case "c":
-                            abstractGhostFactory = new ClydeFactory();
-                            break;
-                    }
-
-                    Ghost ghost = abstractGhostFactory.makeGhost(xx * cellSize, yy * cellSize);
-                    ghosts.add(ghost);
-                    if (dataChar.equals("b")) {
-                        blinky = (Blinky) ghost;
-                    }
-                }else if (dataChar.equals(".")) { //Création des PacGums
-                    objects.add(new PacGum(xx * cellSize, yy * cellSize));
-                }else if (dataChar.equals("o")) { //Création des SuperPacGums
-                    objects.add(new SuperPacGum(xx * cellSize, yy * cellSize));
-                }else if (dataChar.equals("-")) { //Création des murs de la maison des fantômes
-                    objects.add(new GhostHouse(xx * cellSize, yy * cellSize));
+                switch (level.getTile(xx, yy)) {
+                    case LevelData.WALL: //Création des murs
+                        entities.addWall(new Wall(xx * cellSize, yy * cellSize));
+                        break;
+                    case LevelData.PAC_GUM: //Création des PacGums
+                        pellets.addPacGum(xx, yy);
+                        break;
+                    case LevelData.SUPER_PAC_GUM: //Création des SuperPacGums
+                        pellets.addSuperPacGum(xx, yy);
+                        break;
+                    case LevelData.GHOST_HOUSE: //Création des murs de la maison des fantômes
+                        entities.addWall(new GhostHouse(xx * cellSize, yy * cellSize));
+                        break;
+                    default:
+                        break;
                 }
             }
         }
-        objects.add(pacman);
-        objects.addAll(ghosts);
 
-        for (Entity o : objects) {
-            if (o instanceof Wall) {
-                walls.add((Wall) o);
+        //Pacman et les fantômes sont créés à partir de la table des départs du niveau
+        for (int i = 0; i < level.getSpawnCount(); i++) {
+            byte type = level.getSpawnType(i);
+            int xPos = level.getSpawnColumn(i) * cellSize;
+            int yPos = level.getSpawnRow(i) * cellSize;
+            if (type == LevelData.PACMAN) { //Création de Pacman
+                pacman = new Pacman(xPos, yPos);
+                pacman.setGame(this);
+                pacman.setCollisionDetector(collisionDetector);
+
+                //Le bus d'événements puis le jeu observent Pacman ; l'interface, le rendu et les simulations s'abonnent au bus (getEvents)
+                pacman.registerObserver(events);
+                pacman.registerObserver(this);
+                entities.setPacman(pacman);
+            } else { //Création des fantômes en utilisant les différentes factories
+                switch (type) {
+                    case LevelData.BLINKY:
+                        abstractGhostFactory = new BlinkyFactory();
+                        break;
+                    case LevelData.PINKY:
+                        abstractGhostFactory = new PinkyFactory();
+                        break;
+                    case LevelData.INKY:
+                        abstractGhostFactory = new InkyFactory();
+                        break;
+                    case LevelData.CLYDE:
+                        abstractGhostFactory = new ClydeFactory();
+                        break;
+                }
+
+                Ghost ghost = abstractGhostFactory.makeGhost(xPos, yPos);
+                ghost.setGame(this);
+                entities.addGhost(ghost);
+                if (type == LevelData.BLINKY) {
+                    blinky = (Blinky) ghost;
+                }
             }
         }
+        //La grille d'occupation des murs est construite une seule fois ici, les murs ne bougeant pas
+        wallGrid = new WallGrid(entities.getWalls(), cellsPerRow, cellsPerColumn, cellSize);
+
+        //Les distances entre les cases du labyrinthe sont elles aussi calculées une seule fois, pour guider les fantômes par le plus court chemin
+        if (navigationMemoryBudget > 0) {
+            navigationField = new NavigationField(wallGrid, false, navigationMemoryBudget);
+            ghostHouseNavigationField = new NavigationField(wallGrid, true, navigationMemoryBudget);
+            pathFinder = new PathFinder(navigationField);
+            ghostHousePathFinder = new PathFinder(ghostHouseNavigationField);
+        }
+
+        //Les fantômes sont rangés par case pour les détections de collision avec Pacman
+        collisionDetector.buildIndex(cellsPerRow * cellSize, cellsPerColumn * cellSize);
+    }
+
+    //Fichier du niveau fourni avec le jeu
+    public static URI getDefaultLevel() {
+        try {
+            return Game.class.getClassLoader().getResource("level/level.csv").toURI();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public EventBus getEvents() {
+        return events;
+    }
+
+    //Enregistrement d'un observer de Pacman supplémentaire, notifié immédiatement pendant le tick (le bus d'événements suffit à ceux qui n'ont pas besoin de réagir pendant le tick)
+    //Le jeu doit rester notifié en dernier : c'est lui qui applique les transitions (un fantôme effrayé devient mangé), les autres observers voient donc l'état des fantômes au moment du contact
+    public void registerObserver(Observer observer) {
+        pacman.removeObserver(this);
+        pacman.registerObserver(observer);
+        pacman.registerObserver(this);
+    }
+
+    public List<Wall> getWalls() {
+        return entities.getWalls();
+    }
+
+    public WallGrid getWallGrid() {
+        return wallGrid;
+    }
+
+    //Champ de navigation à utiliser selon que le fantôme peut traverser les murs de la maison des fantômes ou non (null si désactivé)
+    public NavigationField getNavigationField(boolean ignoreGhostHouses) {
+        return ignoreGhostHouses ? ghostHouseNavigationField : navigationField;
+    }
+
+    //Recherche de chemin à utiliser selon que le fantôme peut traverser les murs de la maison des fantômes ou non (null si désactivée)
+    public PathFinder getPathFinder(boolean ignoreGhostHouses) {
+        return ignoreGhostHouses ? ghostHousePathFinder : pathFinder;
     }
 
-    public static List<Wall> getWalls() {
-        return walls;
+    public long getSeed() {
+        return seed;
     }
 
-    public List<Entity> getEntities() {
-        return objects;
+    //Graine du générateur aléatoire, à choisir avant le premier tick pour rejouer une partie à l'identique
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
     }
 
-    //Mise à jour de toutes les entités
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    public CollisionDetector getCollisionDetector() {
+        return collisionDetector;
+    }
+
+    //Nombre total de tests de collision (entités et murs) effectués depuis le début de la partie
+    public long getCollisionProbeCount() {
+        return collisionDetector.getProbeCount() + (wallGrid == null ? 0 : wallGrid.getProbeCount());
+    }
+
+    public List<Ghost> getGhosts() {
+        return entities.getGhosts();
+    }
+
+    //Copie de l'histogramme des états des fantômes (nombre de ticks par état, tous fantômes confondus)
+    public long[] getGhostStateTicks() {
+        return Arrays.copyOf(ghostStateTicks, ghostStateTicks.length);
+    }
+
+    public EntityRegistry getEntities() {
+        return entities;
+    }
+
+    //Entités à redessiner à chaque frame (Pacman et les fantômes ; les murs et les PacGums sont dessinés à l'avance par LevelRenderer)
+    public List<Entity> getMovingEntities() {
+        return entities.getMovingEntities();
+    }
+
+    public PelletGrid getPellets() {
+        return pellets;
+    }
+
+    //Toutes les PacGums et SuperPacGums ont été mangées : le joueur a gagné
+    public boolean isLevelCleared() {
+        return pellets.isCleared();
+    }
+
+    //La partie est terminée, perdue (game over) ou gagnée (niveau terminé)
+    public boolean isFinished() {
+        return gameOver || isLevelCleared();
+    }
+
+    //Mise à jour de toutes les entités (plus rien ne bouge une fois la partie terminée)
     public void update() {
-        for (Entity o: objects) {
-            if (!o.isDestroyed()) o.update();
+        if (isFinished()) return;
+        collisionDetector.update(); //Les fantômes ont pu changer de case depuis le tick précédent
+        pellets.update();
+        //Les murs ne changent pas : seuls Pacman et les fantômes sont mis à jour
+        if (entities.getPacman() != null) entities.getPacman().update();
+        for (int i = 0; i < entities.getGhostCount(); i++) {
+            Ghost ghost = entities.getGhost(i);
+            ghost.update();
+            if (firstInput) ghostStateTicks[ghost.getStateId()]++;
         }
+        events.endTick(); //Les événements du tick sont publiés d'un seul bloc
     }
 
     //Gestion des inputs
@@ -119,47 +282,99 @@ public class Game implements Observer {
 
     //Rendu de toutes les entités
     public void render(Graphics2D g) {
-        for (Entity o: objects) {
-            if (!o.isDestroyed()) o.render(g);
+        for (int i = 0; i < entities.getWallCount(); i++) {
+            entities.getWall(i).render(g);
+        }
+        pellets.renderPacGums(g);
+        pellets.renderSuperPacGums(g);
+        for (int i = 0; i < entities.getMovingEntityCount(); i++) {
+            entities.getMovingEntity(i).render(g);
         }
     }
 
-    public static Pacman getPacman() {
+    public Pacman getPacman() {
         return pacman;
     }
-    public static Blinky getBlinky() {
+    public Blinky getBlinky() {
         return blinky;
     }
 
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public DifficultyLevel getDifficulty() {
+        return difficulty;
+    }
+
+    //Permet de fixer le niveau de difficulté sans atteindre son score (mesures, tests...) ; il change de nouveau avec le score
+    public void setDifficulty(DifficultyLevel difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    //Permet de jouer plus longtemps qu'une seule vie (mesures, entraînement...)
+    public void setLives(int lives) {
+        this.lives = lives;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
     //Le jeu est notifiée lorsque Pacman est en contact avec une PacGum, une SuperPacGum ou un fantôme
     @Override
-    public void updatePacGumEaten(PacGum pg) {
-        pg.destroy(); //La PacGum est détruite quand Pacman la mange
+    public void updatePacGumEaten(int xx, int yy) {
+        pellets.eatPacGum(xx, yy); //La PacGum disparaît quand Pacman la mange
+        addScore(10);
     }
 
     @Override
-    public void updateSuperPacGumEaten(SuperPacGum spg) {
-        spg.destroy(); //La SuperPacGum est détruite quand Pacman la mange
-        for (Ghost gh : ghosts) {
-            gh.getState().superPacGumEaten(); //S'il existe une transition particulière quand une SuperPacGum est mangée, l'état des fantômes change
+    public void updateSuperPacGumEaten(int xx, int yy) {
+        pellets.eatSuperPacGum(xx, yy); //La SuperPacGum disparaît quand Pacman la mange
+        addScore(100);
+        for (int i = 0; i < entities.getGhostCount(); i++) {
+            entities.getGhost(i).handleEvent(GhostStateMachine.SUPER_PAC_GUM_EATEN); //S'il existe une transition particulière quand une SuperPacGum est mangée, l'état des fantômes change
         }
     }
 
     @Override
     public void updateGhostCollision(Ghost gh) {
-        if (gh.getState() instanceof FrightenedMode) {
-            gh.getState().eaten(); //S'il existe une transition particulière quand le fantôme est mangé, son état change en conséquence
-        }else if (!(gh.getState() instanceof EatenMode)) {
-            System.out.println("Game over !\nScore : " + GameLauncher.getUIPanel().getScore()); //Quand Pacman rentre en contact avec un Fantôme qui n'est ni effrayé, ni mangé, c'est game over !
-            System.exit(0); //TODO
+        byte state = gh.getStateId();
+        if (GhostStateMachine.hasFlag(state, GhostStateMachine.VULNERABLE)) {
+            gh.handleEvent(GhostStateMachine.GHOST_EATEN); //Le fantôme effrayé est mangé, son état change en conséquence
+            addScore(500);
+        }else if (!GhostStateMachine.hasFlag(state, GhostStateMachine.HARMLESS)) {
+            //Quand Pacman rentre en contact avec un Fantôme qui n'est ni effrayé, ni mangé, il perd une vie ; sans vie restante c'est game over ! (c'est à celui qui fait tourner le jeu de réagir)
+            lives--;
+            if (lives <= 0) {
+                gameOver = true;
+            }
         }
     }
 
-    public static void setFirstInput(boolean b) {
+    //Le niveau de difficulté est recherché à chaque changement de score, dans la table des niveaux (recherche dichotomique)
+    private void addScore(int points) {
+        score += points;
+        difficulty = DifficultyManager.getLevelForScore(score);
+    }
+
+    public void setFirstInput(boolean b) {
         firstInput = b;
     }
 
-    public static boolean getFirstInput() {
+    public boolean getFirstInput() {
         return firstInput;
     }
 }
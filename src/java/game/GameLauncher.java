@@ -1,7 +1,12 @@
 package game;
 
+import game.simulation.Replay;
+import game.utils.ResourceCache;
+
 import javax.swing.*;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 //Point d'entrée de l'application
 public class GameLauncher {
@@ -14,15 +19,35 @@ public class GameLauncher {
 
         JPanel gameWindow = new JPanel();
 
-        //Création de la "zone de jeu"
+        //Création de la "zone de jeu" (avec l'option --dirty-regions, seules les zones modifiées sont redessinées à chaque frame ; avec --active-rendering, le jeu est dessiné directement dans un Canvas à double tampon)
+        //Le rendu suit par défaut la fréquence de l'écran, --fps=<n> permet de la choisir (le jeu lui-même est toujours mis à jour à 60Hz)
+        //--record=<fichier> enregistre la partie (graine et touches de chaque tick) en quittant le jeu, pour la rejouer sans fenêtre avec game.simulation.Replay
+        //--stats affiche les statistiques de performance sous le score, --stats-export=<fichier> les enregistre en quittant le jeu (JSON si le fichier se termine par .json, CSV sinon)
+        GameplayPanel gameplayPanel = null;
         try {
-            gameWindow.add(new GameplayPanel(448,496));
+            //Toutes les images sont décodées en parallèle avant le lancement de la partie, pour ne pas le faire pendant le jeu
+            ResourceCache.preload(true, "background.png", "pacman.png", "blinky.png", "pinky.png", "inky.png", "clyde.png",
+                    "ghost_frightened.png", "ghost_frightened_2.png", "ghost_eaten.png");
+            gameplayPanel = new GameplayPanel(448,496);
+            gameplayPanel.setDirtyRegionRepaint(Arrays.asList(args).contains("--dirty-regions"));
+            gameplayPanel.setActiveRendering(Arrays.asList(args).contains("--active-rendering"));
+            gameplayPanel.setGameEndListener(score -> uiPanel.setGameFinished(true)); //Le score final est déjà affiché par le HUD
+            gameplayPanel.setRecording(Arrays.stream(args).anyMatch(arg -> arg.startsWith("--record=")));
+            for (String arg : args) {
+                if (arg.startsWith("--fps=")) gameplayPanel.setRenderHertz(Double.parseDouble(arg.substring("--fps=".length())));
+                if (arg.startsWith("--record=")) saveReplayOnExit(gameplayPanel, arg.substring("--record=".length()));
+                if (arg.startsWith("--stats-export=")) exportStatsOnExit(gameplayPanel, arg.substring("--stats-export=".length()));
+            }
+            gameWindow.add(gameplayPanel);
         } catch (IOException e) {
             e.printStackTrace();
         }
 
         //Création de l'UI (pour afficher le score)
         uiPanel = new UIPanel(256,496);
+        if (gameplayPanel != null && Arrays.asList(args).contains("--stats")) {
+            uiPanel.setPerformanceMonitor(gameplayPanel.getPerformanceMonitor());
+        }
         gameWindow.add(uiPanel);
 
         window.setContentPane(gameWindow);
@@ -32,6 +57,29 @@ public class GameLauncher {
         window.setVisible(true);
     }
 
+    //Les statistiques sont enregistrées à la fermeture de la JVM (fenêtre fermée)
+    private static void exportStatsOnExit(GameplayPanel gameplayPanel, String file) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                gameplayPanel.getPerformanceMonitor().export(Paths.get(file));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "StatsExport"));
+    }
+
+    private static void saveReplayOnExit(GameplayPanel gameplayPanel, String file) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Replay replay = gameplayPanel.getReplay();
+            if (replay == null) return;
+            try {
+                replay.save(Paths.get(file));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "ReplaySave"));
+    }
+
     public static UIPanel getUIPanel() {
         return uiPanel;
     }
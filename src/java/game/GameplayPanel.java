@@ -1,27 +1,80 @@
 package game;
 
+import game.managers.DifficultyManager;
+import game.metrics.PerformanceMonitor;
+import game.simulation.Replay;
 import game.utils.KeyHandler;
+import game.utils.ResourceCache;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
 
 //Panneau de la "zone de jeu"
+//Deux threads travaillent en parallèle : le thread du jeu (inputs et mises à jour à 60Hz) publie après chaque mise à jour une capture de l'état du jeu (WorldSnapshot),
+//et le thread de rendu dessine la dernière capture publiée, à sa propre fréquence, en interpolant les positions entre les deux dernières mises à jour
+//Les échanges entre threads se font sans verrou : un triple tampon de captures entre le thread du jeu et le thread de rendu, et un triple tampon d'images entre le thread de rendu et le thread de Swing
+//Les événements du jeu (PacGums mangées...) sont transmis par le bus d'événements, vidé par le thread de rendu au début de chaque frame : le thread du jeu n'attend jamais Swing
 public class GameplayPanel extends JPanel implements Runnable {
     public static int width;
     public static int height;
     private Thread thread;
-    private boolean running = false;
+    private Thread renderThread;
+    private volatile boolean running = false;
 
-    private BufferedImage img;
-    private Graphics2D g;
+    private static final double GAME_HERTZ = 60.0;
+    private static final double TBU = 1000000000 / GAME_HERTZ; //Time before update
+
+    //Captures de l'état du jeu publiées par le thread du jeu (réutilisées d'une mise à jour à l'autre)
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
+
+    //Triple tampon : le thread de rendu dessine dans l'image backBuffer, le thread de Swing affiche l'image frontBuffer, et la dernière image terminée attend dans readyBuffer
+    //readyBuffer contient le numéro de cette image, et le bit FRESH indique qu'elle n'a pas encore été récupérée par le thread de Swing
+    private static final int FRESH = 4;
+    private final BufferedImage[] frameBuffers = new BufferedImage[3];
+    private final Graphics2D[] frameGraphics = new Graphics2D[3];
+    private int backBuffer = 0;
+    private int frontBuffer = 1;
+    private final AtomicInteger readyBuffer = new AtomicInteger(2);
     private Image backgroundImage;
 
     private KeyHandler key;
+    //Touches utilisées pour un tick : copie de l'état des touches au début du tick, que le thread de Swing ne peut plus modifier pendant le tick
+    private final KeyHandler tickKeys = new KeyHandler();
+
+    //Enregistrement de la partie (graine et touches de chaque tick), null si désactivé
+    private boolean recording = false;
+    private volatile Replay replay;
 
     private Game game;
+    private LevelRenderer levelRenderer;
+    private UIPanel uiPanel;
+
+    //Appelé avec le score final quand la partie est terminée, perdue ou gagnée (depuis le thread du jeu, qui s'arrête ensuite)
+    private IntConsumer gameEndListener;
+
+    //Fréquence du rendu en images par seconde (0 : fréquence de rafraîchissement de l'écran), indépendante de la fréquence des mises à jour du jeu
+    private double renderHertz = 0;
+
+    //Mode "zones modifiées" : seules les zones qui ont changé pendant la frame sont redessinées et affichées, au lieu de toute la zone de jeu (utile lorsque la bande passante d'affichage est limitée : bornes peu puissantes, sessions X distantes...)
+    //Les zones s'accumulent dans une seule image (frameBuffers[0]), que le thread de rendu et le thread de Swing se partagent sous verrou
+    private boolean dirtyRegionRepaint = false;
+    private List<Rectangle> dirtyRegions;
+
+    //Mode "rendu actif" : le jeu est dessiné directement dans les tampons d'un Canvas (BufferStrategy, échange de pages), sans passer par repaint() et le thread de Swing
+    private boolean activeRendering = false;
+    private Canvas canvas;
+    private BufferStrategy bufferStrategy;
+    private Graphics2D activeGraphics;
+
+    //Statistiques de performance (durée de chaque phase, tests de collision et allocations par tick, FPS)
+    private final PerformanceMonitor performanceMonitor = new PerformanceMonitor();
 
     public GameplayPanel(int width, int height) throws IOException {
         this.width = width;
@@ -30,13 +83,28 @@ public class GameplayPanel extends JPanel implements Runnable {
         setFocusable(true);
         requestFocus();
         //"img/custom_map_001_bg.png"
-        backgroundImage = ImageIO.read(getClass().getClassLoader().getResource("img/background.png"));
+        backgroundImage = ResourceCache.getImage("background.png");
+
+        for (int i = 0; i < frameBuffers.length; i++) {
+            frameBuffers[i] = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            frameGraphics[i] = frameBuffers[i].createGraphics();
+        }
     }
 
     @Override
     public void addNotify() {
         super.addNotify();
 
+        if (activeRendering && canvas == null) {
+            //Le Canvas recouvre tout le panneau ; il ne prend pas le focus, les touches restent donc gérées par le panneau
+            canvas = new Canvas();
+            canvas.setPreferredSize(new Dimension(width, height));
+            canvas.setIgnoreRepaint(true);
+            canvas.setFocusable(false);
+            setLayout(new BorderLayout());
+            add(canvas, BorderLayout.CENTER);
+        }
+
         if (thread == null) {
             thread = new Thread(this, "GameThread");
             thread.start();
@@ -46,12 +114,27 @@ public class GameplayPanel extends JPanel implements Runnable {
     //initialisation du jeu
     public void init() {
         running = true;
-        img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        g = (Graphics2D) img.getGraphics();
 
         key = new KeyHandler(this);
 
         game = new Game();
+        if (recording) replay = new Replay(game.getSeed());
+        //Le HUD part des valeurs de début de partie, puis suit les événements du jeu
+        uiPanel = GameLauncher.getUIPanel();
+        DifficultyManager.getInstance().reset();
+        uiPanel.setLevel(DifficultyManager.getInstance().getCurrentLevelNumber());
+        uiPanel.setLives(game.getLives());
+        uiPanel.setPelletsLeft(game.getPellets().getRemainingCount());
+        game.getEvents().subscribe(uiPanel);
+
+        //Le fond, les murs et les PacGums sont dessinés une fois pour toutes dans des couches, mises à jour quand une PacGum est mangée
+        levelRenderer = new LevelRenderer(game, backgroundImage, width, height);
+        game.getEvents().subscribe(levelRenderer);
+
+        //Le thread de rendu démarre une fois la première capture publiée
+        snapshots.publish(game.getMovingEntities(), game.getPellets(), 0, System.nanoTime());
+        renderThread = new Thread(this::renderLoop, "RenderThread");
+        renderThread.start();
     }
 
     //mise à jour du jeu
@@ -64,87 +147,243 @@ public class GameplayPanel extends JPanel implements Runnable {
         game.input(key);
     }
 
-    //"rendu du jeu" ; on prépare ce qui va être affiché en dessinant sur une "image" : un fond et les entités du jeu au dessus
-    public void render() {
-        if (g != null) {
-            g.drawImage(backgroundImage, 0, 0, width, height, null);
-            game.render(g);
+    //Publication de l'état du jeu après une mise à jour, à destination du thread de rendu (time : date prévue de cette mise à jour)
+    private void publishSnapshot(long tick, long time) {
+        snapshots.publish(game.getMovingEntities(), game.getPellets(), tick, time);
+    }
+
+    //"rendu du jeu" ; on prépare ce qui va être affiché en dessinant sur une "image" : les couches du niveau et les entités du jeu au dessus, d'après la capture et la position entre deux mises à jour (alpha)
+    public void render(WorldSnapshot snapshot, double alpha) {
+        if (activeRendering) {
+            renderActive(snapshot, alpha);
+        } else if (dirtyRegionRepaint) {
+            synchronized (frameBuffers[0]) {
+                dirtyRegions = levelRenderer.renderDirtyRegions(frameGraphics[0], snapshot, alpha);
+            }
+        } else {
+            levelRenderer.render(frameGraphics[backBuffer], snapshot, alpha);
         }
     }
 
-    //Affichage du jeu : on affiche l'image avec le rendu (optimisé pour Mac)
+    //Affichage du jeu : on affiche la dernière image terminée par le thread de rendu (optimisé pour Mac)
     @Override
     protected void paintComponent(Graphics g2) {
         super.paintComponent(g2);
-        if (img != null) {
-            g2.drawImage(img, 0, 0, width, height, null);
+        if (activeRendering) return;
+        long start = System.nanoTime();
+        if (dirtyRegionRepaint) {
+            synchronized (frameBuffers[0]) {
+                g2.drawImage(frameBuffers[0], 0, 0, width, height, null);
+            }
+        } else {
+            //Si une nouvelle image est prête, on la récupère et on rend au thread de rendu celle qui était affichée
+            if ((readyBuffer.get() & FRESH) != 0) {
+                frontBuffer = readyBuffer.getAndSet(frontBuffer) & ~FRESH;
+            }
+            g2.drawImage(frameBuffers[frontBuffer], 0, 0, width, height, null);
         }
+        performanceMonitor.recordPhase(PerformanceMonitor.BLIT, System.nanoTime() - start);
     }
 
     public void draw() {
-        repaint();
+        if (activeRendering) {
+            showActive();
+        } else if (dirtyRegionRepaint) {
+            if (dirtyRegions == null) return;
+            //repaint() réunirait toutes les zones en un seul rectangle englobant : chaque zone est donc affichée séparément, depuis le thread de Swing
+            List<Rectangle> regions = dirtyRegions;
+            dirtyRegions = null;
+            SwingUtilities.invokeLater(() -> {
+                for (Rectangle r : regions) {
+                    paintImmediately(r);
+                }
+            });
+        } else {
+            //L'image terminée est échangée avec celle qui attendait : le thread de rendu ne dessine jamais dans une image que Swing peut être en train d'afficher
+            backBuffer = readyBuffer.getAndSet(backBuffer | FRESH) & ~FRESH;
+            repaint();
+        }
+    }
+
+    //Rendu actif : on dessine dans le tampon arrière du Canvas (créé dès que le Canvas est affichable)
+    private void renderActive(WorldSnapshot snapshot, double alpha) {
+        if (bufferStrategy == null) {
+            if (canvas == null || !canvas.isDisplayable()) return;
+            canvas.createBufferStrategy(2);
+            bufferStrategy = canvas.getBufferStrategy();
+        }
+        activeGraphics = (Graphics2D) bufferStrategy.getDrawGraphics();
+        levelRenderer.render(activeGraphics, snapshot, alpha);
+    }
+
+    //Affichage du tampon arrière (échange de pages) ; si son contenu a été perdu entre temps, la frame suivante le redessinera entièrement
+    private void showActive() {
+        if (activeGraphics == null) return;
+        long start = System.nanoTime();
+        activeGraphics.dispose();
+        activeGraphics = null;
+        if (!bufferStrategy.contentsLost()) {
+            bufferStrategy.show();
+        }
+        Toolkit.getDefaultToolkit().sync();
+        performanceMonitor.recordPhase(PerformanceMonitor.BLIT, System.nanoTime() - start);
+    }
+
+    public void setGameEndListener(IntConsumer gameEndListener) {
+        this.gameEndListener = gameEndListener;
+    }
+
+    //À choisir avant l'ajout du panneau à la fenêtre
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    //Enregistrement de la partie en cours (null si l'enregistrement est désactivé ou si la partie n'a pas commencé)
+    public Replay getReplay() {
+        return replay;
+    }
+
+    public PerformanceMonitor getPerformanceMonitor() {
+        return performanceMonitor;
     }
 
+    public boolean isActiveRendering() {
+        return activeRendering;
+    }
+
+    //À choisir avant l'ajout du panneau à la fenêtre (le mode "zones modifiées" est alors ignoré, chaque frame étant dessinée entièrement dans le tampon arrière)
+    public void setActiveRendering(boolean activeRendering) {
+        this.activeRendering = activeRendering;
+    }
+
+    public boolean isDirtyRegionRepaint() {
+        return dirtyRegionRepaint;
+    }
+
+    //À choisir avant l'ajout du panneau à la fenêtre
+    public void setDirtyRegionRepaint(boolean dirtyRegionRepaint) {
+        this.dirtyRegionRepaint = dirtyRegionRepaint;
+    }
+
+    public double getRenderHertz() {
+        return renderHertz;
+    }
+
+    //À choisir avant l'ajout du panneau à la fenêtre
+    public void setRenderHertz(double renderHertz) {
+        this.renderHertz = renderHertz;
+    }
+
+    //Boucle du thread du jeu : inputs et mises à jour à 60Hz, chaque mise à jour étant suivie de la publication d'une capture
     @Override
     public void run() {
         init();
 
         //Pour faire en sorte que le jeu tourne à 60FPS (tutoriel consulté : https://www.youtube.com/watch?v=LhUN3EKZiio)
-        final double GAME_HERTZ = 60.0;
-        final double TBU = 1000000000 / GAME_HERTZ; //Time before update
-
         final int MUBR = 5; // Must update before render
 
         double lastUpdateTime = System.nanoTime();
-        double lastRenderTime;
-
-        final double TARGET_FPS = 60.0;
-        final double TTBR = 1000000000 / TARGET_FPS; //Total time before render
-
-        int frameCount = 0;
-        int lastSecondTime = (int) (lastUpdateTime / 1000000000);
-        int oldFrameCount = 0;
+        long tick = 0;
 
         while (running) {
             double now = System.nanoTime();
             int updateCount = 0;
             while ((now - lastUpdateTime) > TBU && (updateCount < MUBR)) {
-                input(key);
+                long allocatedBefore = performanceMonitor.getCurrentThreadAllocatedBytes();
+                long probesBefore = game.getCollisionProbeCount();
+                long start = System.nanoTime();
+                int inputBits = key.getInputBits();
+                tickKeys.setInputBits(inputBits);
+                if (replay != null) replay.record(inputBits);
+                input(tickKeys);
+                long inputEnd = System.nanoTime();
                 update();
+                long updateEnd = System.nanoTime();
+                performanceMonitor.recordPhase(PerformanceMonitor.INPUT, inputEnd - start);
+                performanceMonitor.recordPhase(PerformanceMonitor.UPDATE, updateEnd - inputEnd);
+                performanceMonitor.recordCollisionProbes(game.getCollisionProbeCount() - probesBefore);
+                if (allocatedBefore >= 0) {
+                    performanceMonitor.recordAllocatedBytes(performanceMonitor.getCurrentThreadAllocatedBytes() - allocatedBefore);
+                }
                 lastUpdateTime += TBU;
                 updateCount++;
+                publishSnapshot(++tick, (long) lastUpdateTime);
+            }
+
+            //Quand Pacman rentre en contact avec un Fantôme qui n'est ni effrayé, ni mangé, c'est game over ! Et quand il a mangé toutes les PacGums, le niveau est terminé
+            //Dans les deux cas, les deux threads s'arrêtent (le thread de rendu affiche une dernière frame) et la fenêtre reste ouverte
+            if (game.isFinished()) {
+                running = false;
+                if (gameEndListener != null) gameEndListener.accept(game.getScore());
+                break;
             }
 
             if (now - lastUpdateTime > TBU) {
                 lastUpdateTime = now - TBU;
             }
 
-            render();
+            //Attente jusqu'à la prochaine mise à jour : le thread est suspendu jusqu'à cette date précise, au lieu d'enchaîner yield et sleep(1)
+            long deadline = (long) (lastUpdateTime + TBU);
+            long remaining;
+            while (running && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+    }
+
+    //Boucle du thread de rendu : dessin de la dernière capture, avec les positions interpolées selon le temps écoulé depuis la mise à jour correspondante
+    private void renderLoop() {
+        final double TTBR = 1000000000 / (renderHertz > 0 ? renderHertz : getDisplayRefreshRate()); //Total time before render
+
+        long nextRenderTime = System.nanoTime();
+
+        int frameCount = 0;
+        int lastSecondTime = (int) (nextRenderTime / 1000000000);
+
+        while (running) {
+            //Événements publiés depuis la frame précédente : couches du niveau, puis une seule mise à jour de l'interface par frame
+            game.getEvents().drain();
+            WorldSnapshot snapshot = snapshots.acquire();
+            long start = System.nanoTime();
+            double alpha = Math.min(1.0, Math.max(0.0, (start - snapshot.getTime()) / TBU));
+            render(snapshot, alpha);
+            //L'affichage de l'image (draw, ou paintComponent depuis le thread de Swing) est mesuré à part, comme phase BLIT
+            performanceMonitor.recordPhase(PerformanceMonitor.RENDER, System.nanoTime() - start);
             draw();
-            lastRenderTime = now;
             frameCount++;
 
-            int thisSecond = (int) (lastUpdateTime / 1000000000);
+            int thisSecond = (int) (System.nanoTime() / 1000000000);
             if (thisSecond > lastSecondTime) {
-                if (frameCount != oldFrameCount) {
-                    //System.out.println("FPS : " + frameCount);
-                    oldFrameCount = frameCount;
-                }
+                performanceMonitor.setFps(frameCount);
+                uiPanel.setFps(frameCount);
                 frameCount = 0;
                 lastSecondTime = thisSecond;
             }
 
-            while ((now - lastRenderTime < TTBR) && (now - lastUpdateTime < TBU)) {
-                Thread.yield();
+            //Prochaine frame à date fixe ; si le rendu a pris trop de retard, on repart de maintenant plutôt que d'enchaîner les frames pour rattraper
+            nextRenderTime += (long) TTBR;
+            long remaining = nextRenderTime - System.nanoTime();
+            if (remaining < -TTBR) {
+                nextRenderTime = System.nanoTime();
+            }
+            while (running && (remaining = nextRenderTime - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
 
-                try {
-                    Thread.sleep(1);
-                } catch (Exception e) {
-                    System.err.println("ERROR yielding thread");
-                }
+        //Dernière frame, avec l'état final du jeu et les derniers événements
+        game.getEvents().drain();
+        render(snapshots.acquire(), 1.0);
+        draw();
+    }
 
-                now = System.nanoTime();
-            }
+    //Fréquence de rafraîchissement de l'écran qui affiche le panneau (60Hz si elle est inconnue)
+    private double getDisplayRefreshRate() {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc != null) {
+            int refreshRate = gc.getDevice().getDisplayMode().getRefreshRate();
+            if (refreshRate != DisplayMode.REFRESH_RATE_UNKNOWN) return refreshRate;
         }
+        return GAME_HERTZ;
     }
 }
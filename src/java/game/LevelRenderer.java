@@ -0,0 +1,246 @@
+package game;
+
+import game.entities.Entity;
+import game.entities.EntityRegistry;
+import game.entities.PelletGrid;
+import game.events.GameEvent;
+import game.events.GameEventListener;
+import game.utils.SpriteAtlas;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+//Rendu de la zone de jeu par couches
+//Le fond et les murs ne changent jamais : ils sont dessinés une seule fois dans une image (couche statique)
+//Les PacGums sont ajoutées une seule fois par dessus, dans une deuxième image (couche des PacGums) ; quand Pacman en mange une, on recopie seulement sa case depuis la couche statique
+//Les deux couches sont opaques : à chaque frame, on affiche la couche des PacGums d'un seul bloc, puis les SuperPacGums (qui clignotent) et les entités qui bougent ; le coût du rendu ne dépend plus du nombre de PacGums
+//Les entités mobiles peuvent être dessinées directement (même thread que le jeu) ou à partir d'une capture de l'état du jeu (WorldSnapshot) depuis un thread de rendu
+//Les PacGums et SuperPacGums mangées arrivent par le bus d'événements du jeu, qui doit être vidé par le thread qui dessine, avant le rendu
+public class LevelRenderer implements GameEventListener {
+    private final BufferedImage staticLayer;
+    private final BufferedImage pelletLayer;
+    private final int width;
+    private final int height;
+
+    //SuperPacGums restantes, vues par le thread de rendu : copie de celles du jeu, mise à jour avec les événements du bus
+    private final PelletGrid pellets;
+    private final BitSet superPacGums;
+    private boolean superPacGumsVisible;
+    private boolean previousSuperPacGumsVisible;
+
+    //Entités mobiles, et ce qui va être dessiné pour chacune d'elles lors de la frame courante
+    //Leur nombre peut diminuer en cours de partie (entités détruites), les tableaux sont donc agrandis au besoin et seuls les count premiers éléments sont utilisés
+    private final List<Entity> movingEntities;
+    private int count;
+    private int[] sizes = new int[0];
+    private int[] drawX = new int[0];
+    private int[] drawY = new int[0];
+    private BufferedImage[] drawFrames = new BufferedImage[0];
+
+    //Mode "zones modifiées" : position et taille de chaque entité mobile lors de la frame précédente, et zones à redessiner pour la frame courante
+    private int previousCount;
+    private int[] previousX = new int[0];
+    private int[] previousY = new int[0];
+    private int[] previousSizes = new int[0];
+    private boolean firstFrame = true;
+    private List<Rectangle> dirtyRegions = new ArrayList<>();
+
+    public LevelRenderer(Game game, Image backgroundImage, int width, int height) {
+        this.width = width;
+        this.height = height;
+
+        staticLayer = SpriteAtlas.createCompatibleImage(width, height, Transparency.OPAQUE);
+        Graphics2D g = staticLayer.createGraphics();
+        g.drawImage(backgroundImage, 0, 0, width, height, null);
+        EntityRegistry entities = game.getEntities();
+        for (int i = 0; i < entities.getWallCount(); i++) {
+            entities.getWall(i).render(g);
+        }
+        g.dispose();
+
+        pelletLayer = SpriteAtlas.createCompatibleImage(width, height, Transparency.OPAQUE);
+        g = pelletLayer.createGraphics();
+        g.drawImage(staticLayer, 0, 0, null);
+        pellets = game.getPellets();
+        pellets.renderPacGums(g);
+        g.dispose();
+        superPacGums = pellets.copySuperPacGums();
+        previousSuperPacGumsVisible = pellets.isSuperPacGumVisible();
+
+        movingEntities = game.getMovingEntities();
+    }
+
+    //Rendu complet, les entités étant lues directement (à appeler depuis le thread du jeu)
+    public void render(Graphics2D g) {
+        captureEntities();
+        renderFull(g);
+    }
+
+    //Rendu complet à partir d'une capture, avec les positions interpolées entre les deux dernières mises à jour (alpha entre 0 et 1)
+    public void render(Graphics2D g, WorldSnapshot snapshot, double alpha) {
+        captureSnapshot(snapshot, alpha);
+        renderFull(g);
+    }
+
+    //Rendu limité aux zones qui ont changé depuis la frame précédente : l'ancienne et la nouvelle position de chaque entité mobile, et les PacGums mangées
+    //Les zones redessinées sont renvoyées, pour que seules celles-ci soient affichées à l'écran (la liste appartient ensuite à l'appelant)
+    public List<Rectangle> renderDirtyRegions(Graphics2D g) {
+        captureEntities();
+        return renderDirty(g);
+    }
+
+    public List<Rectangle> renderDirtyRegions(Graphics2D g, WorldSnapshot snapshot, double alpha) {
+        captureSnapshot(snapshot, alpha);
+        return renderDirty(g);
+    }
+
+    //Quand une PacGum est mangée, sa case est recopiée depuis la couche statique ; une SuperPacGum mangée n'est plus dessinée
+    //Dans les deux cas la case sera redessinée en mode "zones modifiées"
+    @Override
+    public void onEvent(byte type, long tick, int x, int y) {
+        if (type == GameEvent.PELLET_EATEN) {
+            Rectangle hitbox = pellets.getPacGumHitbox(x, y);
+            Graphics2D g = pelletLayer.createGraphics();
+            g.drawImage(staticLayer, hitbox.x, hitbox.y, hitbox.x + hitbox.width, hitbox.y + hitbox.height,
+                    hitbox.x, hitbox.y, hitbox.x + hitbox.width, hitbox.y + hitbox.height, null);
+            g.dispose();
+            addDirtyRegion(hitbox.x, hitbox.y, hitbox.width, hitbox.height);
+        } else if (type == GameEvent.SUPER_EATEN) {
+            superPacGums.clear(pellets.getTile(x, y));
+            addDirtyRegion(x * pellets.getCellSize(), y * pellets.getCellSize(), PelletGrid.SUPER_PAC_GUM_SIZE, PelletGrid.SUPER_PAC_GUM_SIZE);
+        }
+    }
+
+    private void captureEntities() {
+        superPacGumsVisible = pellets.isSuperPacGumVisible();
+        setCount(movingEntities.size());
+        for (int i = 0; i < count; i++) {
+            Entity o = movingEntities.get(i);
+            sizes[i] = o.getSize();
+            drawX[i] = o.getxPos();
+            drawY[i] = o.getyPos();
+            drawFrames[i] = o.isDestroyed() ? null : o.getFrame();
+        }
+    }
+
+    private void captureSnapshot(WorldSnapshot snapshot, double alpha) {
+        superPacGumsVisible = snapshot.isSuperPacGumVisible();
+        setCount(snapshot.getEntityCount());
+        for (int i = 0; i < count; i++) {
+            sizes[i] = snapshot.getSize(i);
+            drawX[i] = snapshot.getX(i, alpha, sizes[i]);
+            drawY[i] = snapshot.getY(i, alpha, sizes[i]);
+            drawFrames[i] = snapshot.getFrame(i);
+        }
+    }
+
+    private void renderFull(Graphics2D g) {
+        previousSuperPacGumsVisible = superPacGumsVisible;
+        g.drawImage(pelletLayer, 0, 0, null);
+        drawEntities(g);
+
+        //Tout a été redessiné : si l'on repasse en mode "zones modifiées", la première frame sera elle aussi redessinée entièrement
+        firstFrame = true;
+        dirtyRegions.clear();
+    }
+
+    private List<Rectangle> renderDirty(Graphics2D g) {
+        if (firstFrame) {
+            firstFrame = false;
+            dirtyRegions.clear();
+            addDirtyRegion(0, 0, width, height);
+        } else {
+            //Les SuperPacGums restantes apparaissent ou disparaissent toutes en même temps
+            if (superPacGumsVisible != previousSuperPacGumsVisible) {
+                for (int tile = superPacGums.nextSetBit(0); tile >= 0; tile = superPacGums.nextSetBit(tile + 1)) {
+                    addDirtyRegion(pellets.getColumn(tile) * pellets.getCellSize(), pellets.getRow(tile) * pellets.getCellSize(), PelletGrid.SUPER_PAC_GUM_SIZE, PelletGrid.SUPER_PAC_GUM_SIZE);
+                }
+            }
+            //Si une entité a été détruite, les suivantes ont changé de place : on redessine simplement toutes les anciennes et toutes les nouvelles positions
+            if (count != previousCount) {
+                for (int i = 0; i < previousCount; i++) {
+                    addDirtyRegion(previousX[i], previousY[i], previousSizes[i], previousSizes[i]);
+                }
+                for (int i = 0; i < count; i++) {
+                    addDirtyRegion(drawX[i], drawY[i], sizes[i], sizes[i]);
+                }
+            } else for (int i = 0; i < count; i++) {
+                int size = sizes[i];
+                int oldX = previousX[i];
+                int oldY = previousY[i];
+                //Une entité se déplace de quelques pixels par frame : l'ancienne et la nouvelle position forment une seule zone, sauf lors d'un passage par un tunnel
+                if (Math.abs(drawX[i] - oldX) < size && Math.abs(drawY[i] - oldY) < size) {
+                    int x = Math.min(oldX, drawX[i]);
+                    int y = Math.min(oldY, drawY[i]);
+                    addDirtyRegion(x, y, Math.max(oldX, drawX[i]) + size - x, Math.max(oldY, drawY[i]) + size - y);
+                } else {
+                    addDirtyRegion(oldX, oldY, size, size);
+                    addDirtyRegion(drawX[i], drawY[i], size, size);
+                }
+            }
+        }
+        previousSuperPacGumsVisible = superPacGumsVisible;
+        if (previousX.length < count) {
+            previousX = new int[drawX.length];
+            previousY = new int[drawX.length];
+            previousSizes = new int[drawX.length];
+        }
+        System.arraycopy(drawX, 0, previousX, 0, count);
+        System.arraycopy(drawY, 0, previousY, 0, count);
+        System.arraycopy(sizes, 0, previousSizes, 0, count);
+        previousCount = count;
+
+        Shape clip = g.getClip();
+        for (Rectangle r : dirtyRegions) {
+            g.setClip(r);
+            g.drawImage(pelletLayer, 0, 0, null);
+            drawEntities(g);
+        }
+        g.setClip(clip);
+
+        List<Rectangle> regions = dirtyRegions;
+        dirtyRegions = new ArrayList<>();
+        return regions;
+    }
+
+    private void drawEntities(Graphics2D g) {
+        if (superPacGumsVisible) {
+            BufferedImage frame = PelletGrid.getSuperPacGumFrame();
+            int cellSize = pellets.getCellSize();
+            for (int tile = superPacGums.nextSetBit(0); tile >= 0; tile = superPacGums.nextSetBit(tile + 1)) {
+                g.drawImage(frame, pellets.getColumn(tile) * cellSize, pellets.getRow(tile) * cellSize, null);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (drawFrames[i] != null) g.drawImage(drawFrames[i], drawX[i], drawY[i], null);
+        }
+    }
+
+    //Nombre d'entités mobiles de la frame courante (les tableaux ne sont réalloués que s'il augmente)
+    private void setCount(int n) {
+        count = n;
+        if (drawFrames.length < n) {
+            sizes = Arrays.copyOf(sizes, n);
+            drawX = Arrays.copyOf(drawX, n);
+            drawY = Arrays.copyOf(drawY, n);
+            drawFrames = Arrays.copyOf(drawFrames, n);
+        }
+        for (int i = n; i < drawFrames.length; i++) {
+            drawFrames[i] = null;
+        }
+    }
+
+    //Ajout d'une zone à redessiner, limitée à la zone de jeu (les entités dans un tunnel en sortent en partie)
+    private void addDirtyRegion(int x, int y, int w, int h) {
+        int x0 = Math.max(x, 0);
+        int y0 = Math.max(y, 0);
+        int x1 = Math.min(x + w, width);
+        int y1 = Math.min(y + h, height);
+        if (x0 >= x1 || y0 >= y1) return;
+        dirtyRegions.add(new Rectangle(x0, y0, x1 - x0, y1 - y0));
+    }
+}
@@ -1,12 +1,11 @@
 package game;
 
-import game.entities.PacGum;
-import game.entities.SuperPacGum;
 import game.entities.ghosts.Ghost;
 
 //Interface de l'observer
+//Les PacGums et SuperPacGums mangées sont désignées par leur case dans la grille du niveau (voir PelletGrid)
 public interface Observer {
-    void updatePacGumEaten(PacGum pg);
-    void updateSuperPacGumEaten(SuperPacGum spg);
+    void updatePacGumEaten(int xx, int yy);
+    void updateSuperPacGumEaten(int xx, int yy);
     void updateGhostCollision(Ghost gh);
 }
@@ -0,0 +1,39 @@
+package game;
+
+import game.entities.Entity;
+import game.entities.PelletGrid;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Triple tampon de captures de l'état du jeu (WorldSnapshot), entre le thread du jeu et le thread de rendu, sans verrou ni allocation
+//Le thread du jeu remplit la capture writing, le thread de rendu lit la capture reading, et la dernière capture publiée attend dans ready
+//ready contient le numéro de cette capture, et le bit FRESH indique qu'elle n'a pas encore été récupérée par le thread de rendu
+public final class SnapshotBuffer {
+    private static final int FRESH = 4;
+
+    private final WorldSnapshot[] snapshots = {new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot()};
+    private final AtomicInteger ready = new AtomicInteger(1);
+
+    //Thread du jeu : capture en cours de remplissage, et dernière capture publiée (lue pour les positions précédentes, personne ne la modifie)
+    private int writing = 0;
+    private int lastPublished = -1;
+
+    //Thread de rendu
+    private int reading = 2;
+
+    //Thread du jeu : capture de l'état du jeu, puis publication ; la capture échangée contre elle est la plus ancienne des trois
+    public void publish(List<Entity> movingEntities, PelletGrid pellets, long tick, long time) {
+        snapshots[writing].capture(movingEntities, pellets, lastPublished == -1 ? null : snapshots[lastPublished], tick, time);
+        lastPublished = writing;
+        writing = ready.getAndSet(writing | FRESH) & ~FRESH;
+    }
+
+    //Thread de rendu : dernière capture publiée, qui reste valable jusqu'à l'appel suivant (la première capture doit avoir été publiée)
+    public WorldSnapshot acquire() {
+        if ((ready.get() & FRESH) != 0) {
+            reading = ready.getAndSet(reading) & ~FRESH;
+        }
+        return snapshots[reading];
+    }
+}
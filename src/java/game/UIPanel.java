@@ -1,56 +1,239 @@
 package game;
 
-import game.entities.PacGum;
-import game.entities.SuperPacGum;
-import game.entities.ghosts.Ghost;
-import game.ghostStates.FrightenedMode;
+import game.events.GameEvent;
+import game.events.GameEventListener;
+import game.managers.DifficultyManager;
+import game.metrics.PerformanceMonitor;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 //Panneau de l'interface utilisateur
-public class UIPanel extends JPanel implements Observer {
+//Le panneau est abonné au bus d'événements du jeu, et affiche le HUD : score, vies, niveau, PacGums restantes et FPS, puis "Game over" ou "Level cleared" quand la partie est terminée
+//Les valeurs du HUD peuvent être modifiées depuis n'importe quel thread ; elles sont dessinées directement (sans JLabel, donc sans recalcul de la mise en page), et le HUD est rafraîchi au plus une fois par frame depuis le thread de Swing
+public class UIPanel extends JPanel implements GameEventListener {
     public static int width;
     public static int height;
 
-    private int score = 0;
-    private JLabel scoreLabel;
+    private static final int HUD_HEIGHT = 130;
+    private static final Font SCORE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 20);
+    private static final Font HUD_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 14);
+
+    //Modèle du HUD
+    private final AtomicInteger score = new AtomicInteger();
+    private volatile int lives;
+    private volatile int level = 1;
+    private volatile int pelletsLeft;
+    private volatile int fps;
+    private volatile boolean gameFinished;
+
+    //Un seul rafraîchissement du HUD peut être en attente dans le thread de Swing : les demandes suivantes sont regroupées avec lui
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+    //Valeurs affichées et textes correspondants (thread de Swing uniquement), les textes n'étant reconstruits que si la valeur a changé
+    private int shownScore = -1;
+    private int shownLives = -1;
+    private int shownLevel = -1;
+    private int shownPelletsLeft = -1;
+    private int shownFps = -1;
+    private boolean shownGameFinished;
+    private String scoreText;
+    private String livesText;
+    private String levelText;
+    private String pelletsText;
+    private String fpsText;
+
+    //Incrustation des statistiques de performance (désactivée par défaut), rafraîchie deux fois par seconde
+    private JLabel statsLabel;
+    private Timer statsTimer;
 
     public UIPanel(int width, int height) {
         this.width = width;
         this.height = height;
         setPreferredSize(new Dimension(width, height));
         this.setBackground(Color.black);
-        scoreLabel = new JLabel("Score: " + score);
-        scoreLabel.setFont(scoreLabel.getFont().deriveFont(20.0F));
-        scoreLabel.setForeground(Color.white);
-        this.add(scoreLabel, BorderLayout.WEST);
+        //Le HUD est dessiné en haut du panneau, les composants éventuels (statistiques) sont placés en dessous
+        setBorder(BorderFactory.createEmptyBorder(HUD_HEIGHT, 0, 0, 0));
+        updateHudTexts();
     }
 
+    //Points gagnés (depuis n'importe quel thread)
     public void updateScore(int incrScore) {
-        this.score += incrScore;
-        this.scoreLabel.setText("Score: " + score);
+        score.addAndGet(incrScore);
+        requestRefresh();
+    }
+
+    public void setLives(int lives) {
+        this.lives = lives;
+        requestRefresh();
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+        requestRefresh();
+    }
+
+    public void setPelletsLeft(int pelletsLeft) {
+        this.pelletsLeft = pelletsLeft;
+        requestRefresh();
+    }
+
+    public void setFps(int fps) {
+        this.fps = fps;
+        requestRefresh();
+    }
+
+    public void setGameFinished(boolean gameFinished) {
+        this.gameFinished = gameFinished;
+        requestRefresh();
+    }
+
+    public boolean isGameFinished() {
+        return gameFinished;
     }
 
     public int getScore() {
-        return score;
+        return score.get();
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getPelletsLeft() {
+        return pelletsLeft;
     }
 
-    //L'interface est notifiée lorsque Pacman est en contact avec une PacGum, une SuperPacGum ou un fantôme, et on met à jour le score affiché en conséquence
+    public int getFps() {
+        return fps;
+    }
+
+    //Demande de rafraîchissement du HUD, confiée au thread de Swing sans l'attendre ; sans effet si un rafraîchissement est déjà en attente
+    public void requestRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::refreshHud);
+        }
+    }
+
+    //Affichage des statistiques de performance sous le score (monitor null : on retire l'incrustation)
+    public void setPerformanceMonitor(PerformanceMonitor monitor) {
+        if (statsTimer != null) {
+            statsTimer.stop();
+            remove(statsLabel);
+            statsTimer = null;
+            statsLabel = null;
+        }
+        if (monitor != null) {
+            statsLabel = new JLabel();
+            statsLabel.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 10));
+            statsLabel.setForeground(Color.lightGray);
+            add(statsLabel);
+            statsTimer = new Timer(500, e -> statsLabel.setText("<html><pre>" + monitor.getSummary() + "</pre></html>"));
+            statsTimer.setInitialDelay(0);
+            statsTimer.start();
+        }
+        revalidate();
+        repaint();
+    }
+
+    //L'interface reçoit les PacGums, SuperPacGums et fantômes (effrayés) mangés, et la mort de Pacman (thread qui vide le bus d'événements)
+    //Le HUD n'est rafraîchi qu'une fois tous les événements de la frame reçus (onEventsDrained)
     @Override
-    public void updatePacGumEaten(PacGum pg) {
-        updateScore(10);
+    public void onEvent(byte type, long tick, int x, int y) {
+        switch (type) {
+            case GameEvent.PELLET_EATEN:
+                score.addAndGet(10);
+                pelletsLeft--;
+                break;
+            case GameEvent.SUPER_EATEN:
+                score.addAndGet(100);
+                pelletsLeft--;
+                break;
+            case GameEvent.GHOST_EATEN:
+                score.addAndGet(500);
+                break;
+            case GameEvent.DEATH:
+                lives--;
+                break;
+        }
     }
 
+    //Le niveau affiché est celui du gestionnaire de difficulté, mis à jour avec le score de la frame
     @Override
-    public void updateSuperPacGumEaten(SuperPacGum spg) {
-        updateScore(100);
+    public void onEventsDrained() {
+        DifficultyManager difficultyManager = DifficultyManager.getInstance();
+        if (difficultyManager.updateLevel(score.get())) {
+            level = difficultyManager.getCurrentLevelNumber();
+        }
+        requestRefresh();
+    }
+
+    //Rafraîchissement du HUD (thread de Swing) : seule la zone du HUD est redessinée, et seulement si une valeur a changé
+    private void refreshHud() {
+        refreshPending.set(false);
+        if (updateHudTexts()) {
+            repaint(0, 0, getWidth(), HUD_HEIGHT);
+        }
+    }
+
+    private boolean updateHudTexts() {
+        boolean changed = false;
+        int value = score.get();
+        if (value != shownScore) {
+            shownScore = value;
+            scoreText = "Score: " + value;
+            changed = true;
+        }
+        if ((value = lives) != shownLives) {
+            shownLives = value;
+            livesText = "Lives: " + value;
+            changed = true;
+        }
+        if ((value = level) != shownLevel) {
+            shownLevel = value;
+            levelText = "Level: " + value;
+            changed = true;
+        }
+        if ((value = pelletsLeft) != shownPelletsLeft) {
+            shownPelletsLeft = value;
+            pelletsText = "Pellets: " + value;
+            changed = true;
+        }
+        if ((value = fps) != shownFps) {
+            shownFps = value;
+            fpsText = "FPS: " + value;
+            changed = true;
+        }
+        if (gameFinished != shownGameFinished) {
+            shownGameFinished = gameFinished;
+            changed = true;
+        }
+        return changed;
     }
 
     @Override
-    public void updateGhostCollision(Ghost gh) {
-        if (gh.getState() instanceof FrightenedMode) { //Dans le cas où Pacman est en contact avec un fantôme on ne met à jour le score que lorsque ce dernier est en mode "frightened"
-            updateScore(500);
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setColor(Color.white);
+        g2.setFont(SCORE_FONT);
+        g2.drawString(scoreText, 16, 30);
+        g2.setFont(HUD_FONT);
+        g2.drawString(livesText, 16, 56);
+        g2.drawString(levelText, 16, 76);
+        g2.drawString(pelletsText, 16, 96);
+        g2.drawString(fpsText, 16, 116);
+        if (shownGameFinished) {
+            g2.setColor(shownPelletsLeft == 0 ? Color.green : Color.red);
+            g2.setFont(SCORE_FONT);
+            g2.drawString(shownPelletsLeft == 0 ? "Level cleared" : "Game over", 120, 30);
         }
     }
 }
@@ -0,0 +1,95 @@
+package game;
+
+import game.entities.Entity;
+import game.entities.PelletGrid;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+//État du jeu capturé à la fin d'une mise à jour, transmis par le thread du jeu au thread de rendu
+//Les captures sont réutilisées : trois captures circulent entre les deux threads (SnapshotBuffer), et une capture n'est remplie par le thread du jeu que lorsque le thread de rendu ne peut plus la lire
+//Pour chaque entité mobile (dans l'ordre de Game.getMovingEntities) : sa position lors de cette mise à jour et lors de la précédente, sa taille, et l'image à afficher (null si l'entité n'est pas visible)
+//Ainsi que la visibilité des SuperPacGums, qui clignotent toutes en même temps
+public final class WorldSnapshot {
+    private long tick;
+    private long time; //Date de la capture (System.nanoTime), pour l'interpolation entre deux mises à jour
+    //Seuls les count premiers éléments des tableaux sont utilisés ; ils ne sont réalloués que si le nombre d'entités augmente
+    private int count;
+    private int[] xPositions = new int[0];
+    private int[] yPositions = new int[0];
+    private int[] previousXPositions = new int[0];
+    private int[] previousYPositions = new int[0];
+    private int[] sizes = new int[0];
+    private BufferedImage[] frames = new BufferedImage[0];
+    private boolean superPacGumVisible;
+
+    //Capture des entités mobiles dans cette capture ; les positions précédentes sont recopiées depuis la capture précédente (null pour la première)
+    //Si une entité a été détruite entre temps, les entités suivantes ont changé de place dans le registre : on ne fait alors pas d'interpolation pour cette capture
+    public void capture(List<Entity> movingEntities, PelletGrid pellets, WorldSnapshot previous, long tick, long time) {
+        int n = movingEntities.size();
+        if (frames.length < n) {
+            xPositions = new int[n];
+            yPositions = new int[n];
+            previousXPositions = new int[n];
+            previousYPositions = new int[n];
+            sizes = new int[n];
+            frames = new BufferedImage[n];
+        }
+        for (int i = 0; i < n; i++) {
+            Entity o = movingEntities.get(i);
+            xPositions[i] = o.getxPos();
+            yPositions[i] = o.getyPos();
+            sizes[i] = o.getSize();
+            frames[i] = o.isDestroyed() ? null : o.getFrame();
+        }
+        for (int i = n; i < count; i++) {
+            frames[i] = null;
+        }
+        boolean interpolate = previous != null && previous.count == n;
+        System.arraycopy(interpolate ? previous.xPositions : xPositions, 0, previousXPositions, 0, n);
+        System.arraycopy(interpolate ? previous.yPositions : yPositions, 0, previousYPositions, 0, n);
+        this.count = n;
+        this.tick = tick;
+        this.time = time;
+        this.superPacGumVisible = pellets.isSuperPacGumVisible();
+    }
+
+    //Position interpolée entre la mise à jour précédente (alpha = 0) et celle-ci (alpha = 1)
+    //Au delà d'un déplacement d'une taille d'entité (passage par un tunnel, entité détruite), on ne fait pas d'interpolation
+    public int getX(int i, double alpha, int size) {
+        return interpolate(previousXPositions[i], xPositions[i], alpha, size);
+    }
+
+    public int getY(int i, double alpha, int size) {
+        return interpolate(previousYPositions[i], yPositions[i], alpha, size);
+    }
+
+    private static int interpolate(int from, int to, double alpha, int size) {
+        if (Math.abs(to - from) >= size) return to;
+        return (int) Math.round(from + (to - from) * alpha);
+    }
+
+    public int getSize(int i) {
+        return sizes[i];
+    }
+
+    public BufferedImage getFrame(int i) {
+        return frames[i];
+    }
+
+    public boolean isSuperPacGumVisible() {
+        return superPacGumVisible;
+    }
+
+    public int getEntityCount() {
+        return count;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public long getTime() {
+        return time;
+    }
+}
@@ -1,6 +1,7 @@
 package game.entities;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
 //Classe abtraite pour décrite une entité
 public abstract class Entity {
@@ -10,6 +11,10 @@ public abstract class Entity {
 
     protected boolean destroyed = false;
 
+    //Registre qui contient l'entité, et sa place dans le tableau de son type (voir EntityRegistry)
+    EntityRegistry registry;
+    int registryIndex = -1;
+
     public Entity(int size, int xPos, int yPos) {
         this.size = size;
         this.xPos = xPos;
@@ -20,10 +25,15 @@ public abstract class Entity {
 
     public void render(Graphics2D g) {}
 
+    //Image à afficher à la position de l'entité pour la frame courante (null si l'entité n'a pas d'image ou n'est pas visible) ; sert à capturer l'état du jeu pour le thread de rendu
+    public BufferedImage getFrame() {
+        return null;
+    }
+
+    //Une entité détruite quitte son registre : elle n'est plus mise à jour, dessinée ni testée lors des collisions
     public void destroy() {
-        this.xPos = -32;
-        this.yPos = -32;
         destroyed = true;
+        if (registry != null) registry.remove(this);
     }
 
     public boolean isDestroyed() {
@@ -0,0 +1,145 @@
+package game.entities;
+
+import game.entities.ghosts.Ghost;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+//Registre des entités du jeu : un tableau dense par type (murs, fantômes) et Pacman, chaque phase du jeu ne parcourant que le type dont elle a besoin, sans test de type
+//Une entité détruite quitte immédiatement son tableau : elle est remplacée par la dernière du tableau (retrait en temps constant, l'ordre des entités restantes peut donc changer)
+//Les PacGums et SuperPacGums ne sont pas des entités (voir PelletGrid)
+public class EntityRegistry {
+    private Wall[] walls = new Wall[64];
+    private int wallCount = 0;
+    private Ghost[] ghosts = new Ghost[4];
+    private int ghostCount = 0;
+    private Pacman pacman;
+
+    //Vues en lecture seule sur les tableaux (toujours à jour, aucune copie)
+    private final List<Wall> wallView = new AbstractList<Wall>() {
+        @Override
+        public Wall get(int i) {
+            return getWall(i);
+        }
+
+        @Override
+        public int size() {
+            return wallCount;
+        }
+    };
+    private final List<Ghost> ghostView = new AbstractList<Ghost>() {
+        @Override
+        public Ghost get(int i) {
+            return getGhost(i);
+        }
+
+        @Override
+        public int size() {
+            return ghostCount;
+        }
+    };
+    private final List<Entity> movingEntityView = new AbstractList<Entity>() {
+        @Override
+        public Entity get(int i) {
+            return getMovingEntity(i);
+        }
+
+        @Override
+        public int size() {
+            return getMovingEntityCount();
+        }
+    };
+
+    public void addWall(Wall wall) {
+        if (wallCount == walls.length) walls = Arrays.copyOf(walls, wallCount * 2);
+        register(wall, wallCount);
+        walls[wallCount++] = wall;
+    }
+
+    public void addGhost(Ghost ghost) {
+        if (ghostCount == ghosts.length) ghosts = Arrays.copyOf(ghosts, ghostCount * 2);
+        register(ghost, ghostCount);
+        ghosts[ghostCount++] = ghost;
+    }
+
+    public void setPacman(Pacman pacman) {
+        if (this.pacman != null) remove(this.pacman);
+        register(pacman, 0);
+        this.pacman = pacman;
+    }
+
+    //Retrait d'une entité (appelé par Entity.destroy) : la dernière entité du même type prend sa place
+    public void remove(Entity e) {
+        if (e.registry != this) return;
+        int i = e.registryIndex;
+        if (e == pacman) {
+            pacman = null;
+        } else if (i < wallCount && walls[i] == e) {
+            walls[i] = walls[--wallCount];
+            walls[i].registryIndex = i;
+            walls[wallCount] = null;
+        } else if (i < ghostCount && ghosts[i] == e) {
+            Entity moved = ghosts[--ghostCount]; //Les fantômes sont dans un autre paquetage : l'index est mis à jour à travers le type Entity
+            ghosts[i] = (Ghost) moved;
+            moved.registryIndex = i;
+            ghosts[ghostCount] = null;
+        }
+        e.registry = null;
+        e.registryIndex = -1;
+    }
+
+    public int getWallCount() {
+        return wallCount;
+    }
+
+    public Wall getWall(int i) {
+        if (i >= wallCount) throw new IndexOutOfBoundsException(i);
+        return walls[i];
+    }
+
+    public int getGhostCount() {
+        return ghostCount;
+    }
+
+    public Ghost getGhost(int i) {
+        if (i >= ghostCount) throw new IndexOutOfBoundsException(i);
+        return ghosts[i];
+    }
+
+    //Null si Pacman a été détruit
+    public Pacman getPacman() {
+        return pacman;
+    }
+
+    //Entités qui bougent ou s'animent : Pacman (s'il est encore là) puis les fantômes
+    public int getMovingEntityCount() {
+        return (pacman != null ? 1 : 0) + ghostCount;
+    }
+
+    public Entity getMovingEntity(int i) {
+        if (pacman != null) {
+            if (i == 0) return pacman;
+            i--;
+        }
+        return getGhost(i);
+    }
+
+    public List<Wall> getWalls() {
+        return wallView;
+    }
+
+    public List<Ghost> getGhosts() {
+        return ghostView;
+    }
+
+    public List<Entity> getMovingEntities() {
+        return movingEntityView;
+    }
+
+    private void register(Entity e, int index) {
+        if (e.registry != null) e.registry.remove(e);
+        e.registry = this;
+        e.registryIndex = index;
+    }
+}
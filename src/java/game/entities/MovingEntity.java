@@ -1,17 +1,27 @@
 package game.entities;
 
-import game.GameplayPanel;
-import javax.imageio.ImageIO;
+import game.Game;
+import game.utils.ResourceCache;
+import game.utils.SpriteAtlas;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 
 //Classe abtraite pour décrire une entité mouvante
+//La position est gardée en virgule fixe 16.16 (16 bits pour la partie fractionnaire), pour pouvoir avancer d'une fraction de pixel par tick sans calcul flottant ; xPos et yPos en sont les parties entières (collisions, rendu)
 public abstract class MovingEntity extends Entity {
-    protected int spd;
+    public static final int FIXED_SHIFT = 16;
+    public static final int FIXED_ONE = 1 << FIXED_SHIFT;
+    private static final int TILE = 8 << FIXED_SHIFT; //Taille d'une case de la grille, en virgule fixe
+
+    protected Game game; //Partie à laquelle appartient l'entité (dimensions de la zone de jeu, murs, autres entités...)
+    protected int spd; //Vitesse de base, en pixels par tick
+    protected int xFix;
+    protected int yFix;
     protected int xSpd = 0;
     protected int ySpd = 0;
     protected BufferedImage sprite;
+    protected SpriteAtlas spriteAtlas; //Images du sprite découpées une fois pour toutes, pour chaque direction et chaque image de l'animation
     protected float subimage = 0;
     protected int nbSubimagesPerCycle;
     protected int direction = 0;
@@ -20,10 +30,14 @@ public abstract class MovingEntity extends Entity {
     public MovingEntity(int size, int xPos, int yPos, int spd, String spriteName, int nbSubimagesPerCycle, float imageSpd) {
         super(size, xPos, yPos);
         this.spd = spd;
+        this.xFix = xPos << FIXED_SHIFT;
+        this.yFix = yPos << FIXED_SHIFT;
         try {
-            this.sprite = ImageIO.read(getClass().getClassLoader().getResource("img/" + spriteName));
+            //Les images sont partagées entre les entités : chaque sprite n'est décodé et découpé qu'une seule fois
+            this.sprite = ResourceCache.getImage(spriteName);
             this.nbSubimagesPerCycle = nbSubimagesPerCycle;
             this.imageSpd = imageSpd;
+            this.spriteAtlas = ResourceCache.getSpriteAtlas(spriteName, size, nbSubimagesPerCycle);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -37,75 +51,125 @@ public abstract class MovingEntity extends Entity {
     public void updatePosition() {
         //Mise à jour de la position de l'entité
         if (!(xSpd == 0 && ySpd == 0)) { //Si la vitesse horizontale ou la vitesse verticale n'est pas nulle, on incrémente la position horizontale et verticale en conséquence
-            xPos+=xSpd;
-            yPos+=ySpd;
-
-            //En fonction de la direction emprunté, on change la valeur de la direction (un entier permettant de savoir la partie de l'image à afficher notamment)
-            if (xSpd > 0) {
-                direction = 0;
-            } else if (xSpd < 0) {
-                direction = 1;
-            } else if (ySpd < 0) {
-                direction = 2;
-            } else if (ySpd > 0) {
-                direction = 3;
-            }
-
-            //On incrémente la valeur de l'image courante de l'animation à afficher (la vitesse peut varier), et selon le nombre d'images de l'animation, la valeur fait une boucle
-            subimage += imageSpd;
-            if (subimage >= nbSubimagesPerCycle) {
-                subimage = 0;
-            }
+            xFix += xSpd << FIXED_SHIFT;
+            yFix += ySpd << FIXED_SHIFT;
+            animate();
         }
-
-        //Si l'entité va au dela des bords de la zone de jeu, elle passe de l'autre côté
-        if (xPos > GameplayPanel.width) {
-            xPos = 0 - size + spd;
+        wrapAround();
+    }
+
+    //Déplacement d'une distance donnée (en virgule fixe) dans la direction de la vitesse, sans jamais sauter une case de la grille :
+    //le déplacement s'arrête sur chaque case traversée, où onTileReached peut changer la direction, puis reprend avec la distance restante
+    //Quelle que soit la vitesse, l'entité passe donc exactement par chaque case, comme avec un déplacement entier qui divise la taille d'une case
+    public void move(int distance) {
+        if (onTheGrid()) onTileReached();
+        boolean moved = false;
+        while (distance > 0 && !(xSpd == 0 && ySpd == 0)) {
+            int step = Math.min(distance, getDistanceToNextTile());
+            xFix += Integer.signum(xSpd) * step;
+            yFix += Integer.signum(ySpd) * step;
+            distance -= step;
+            moved = true;
+            wrapAround();
+            if (distance > 0 && onTheGrid()) onTileReached();
         }
-
-        if (xPos < 0 - size + spd) {
-            xPos = GameplayPanel.width;
+        if (moved) animate();
+    }
+
+    //Appelée par move quand l'entité est sur une case de la grille (au début du tick, ou en traversant une case)
+    protected void onTileReached() {}
+
+    //Distance (en virgule fixe) jusqu'à la prochaine case de la grille dans la direction de la vitesse (une case entière si l'entité est déjà sur une case)
+    private int getDistanceToNextTile() {
+        int position = xSpd != 0 ? xFix : yFix;
+        int offset = position & (TILE - 1);
+        if ((xSpd != 0 ? xSpd : ySpd) > 0) return TILE - offset;
+        return offset == 0 ? TILE : offset;
+    }
+
+    private void animate() {
+        //En fonction de la direction emprunté, on change la valeur de la direction (un entier permettant de savoir la partie de l'image à afficher notamment)
+        if (xSpd > 0) {
+            direction = 0;
+        } else if (xSpd < 0) {
+            direction = 1;
+        } else if (ySpd < 0) {
+            direction = 2;
+        } else if (ySpd > 0) {
+            direction = 3;
         }
 
-        if (yPos > GameplayPanel.height) {
-            yPos = 0 - size + spd;
+        //On incrémente la valeur de l'image courante de l'animation à afficher (la vitesse peut varier), et selon le nombre d'images de l'animation, la valeur fait une boucle
+        subimage += imageSpd;
+        if (subimage >= nbSubimagesPerCycle) {
+            subimage = 0;
         }
+    }
 
-        if (yPos < 0 - size + spd) {
-            yPos = GameplayPanel.height;
+    //Si l'entité va au dela des bords de la zone de jeu, elle passe de l'autre côté ; le décalage (largeur de la zone plus la taille de l'entité) est un multiple de la taille d'une case, l'entité reste donc alignée sur la grille
+    private void wrapAround() {
+        int width = game.getWidth() << FIXED_SHIFT;
+        int height = game.getHeight() << FIXED_SHIFT;
+        int minPosition = -size << FIXED_SHIFT;
+        if (xFix > width) {
+            xFix -= width - minPosition;
+        } else if (xFix <= minPosition) {
+            xFix += width - minPosition;
+        }
+        if (yFix > height) {
+            yFix -= height - minPosition;
+        } else if (yFix <= minPosition) {
+            yFix += height - minPosition;
         }
+        xPos = xFix >> FIXED_SHIFT;
+        yPos = yFix >> FIXED_SHIFT;
     }
 
     @Override
     public void render(Graphics2D g) {
         //Par défaut, on considère que chaque "sprite" contient 4 variations de l'animation correspondant à une direction et chaque animation a un certain nombre d'images
-        //En sachant cela, on affiche seulement la partie de l'image du sprite correspondant à la bonne direction et à la bonne frame de l'animation
-        g.drawImage(sprite.getSubimage((int)subimage * size + direction * size * nbSubimagesPerCycle, 0, size, size), this.xPos, this.yPos,null);
+        //En sachant cela, on affiche seulement la partie de l'image du sprite correspondant à la bonne direction et à la bonne frame de l'animation (découpée à l'avance dans l'atlas)
+        g.drawImage(getFrame(), this.xPos, this.yPos,null);
     }
 
-    //Méthode pour savoir si l'entité est bien positionnée sur une case de la grille de la zone de jeu ou non
+    @Override
+    public BufferedImage getFrame() {
+        return spriteAtlas.getFrame(direction, (int)subimage);
+    }
+
+    //Méthode pour savoir si l'entité est bien positionnée sur une case de la grille de la zone de jeu ou non (partie fractionnaire comprise)
     public boolean onTheGrid() {
-        return (xPos%8 == 0 && yPos%8 == 0);
+        return ((xFix | yFix) & (TILE - 1)) == 0;
     }
 
     //Méthode pour savoir si l'entité est dans la zone de jeu ou non
-    public boolean onGameplayWindow() { return !(xPos<=0 || xPos>= GameplayPanel.width || yPos<=0 || yPos>= GameplayPanel.height); }
+    public boolean onGameplayWindow() { return !(xPos<=0 || xPos>= game.getWidth() || yPos<=0 || yPos>= game.getHeight()); }
 
     public Rectangle getHitbox() {
         return new Rectangle(xPos, yPos, size, size);
     }
 
+    public Game getGame() {
+        return game;
+    }
+
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
     public BufferedImage getSprite() {
         return sprite;
     }
 
     public void setSprite(BufferedImage sprite) {
         this.sprite = sprite;
+        this.spriteAtlas = new SpriteAtlas(sprite, size, nbSubimagesPerCycle);
     }
 
     public void setSprite(String spriteName) {
         try {
-            this.sprite = ImageIO.read(getClass().getClassLoader().getResource("img/" + spriteName));
+            this.sprite = ResourceCache.getImage(spriteName);
+            this.spriteAtlas = ResourceCache.getSpriteAtlas(spriteName, size, nbSubimagesPerCycle);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -154,4 +218,13 @@ public abstract class MovingEntity extends Entity {
     public int getSpd() {
         return spd;
     }
+
+    //Position en virgule fixe 16.16
+    public int getxFix() {
+        return xFix;
+    }
+
+    public int getyFix() {
+        return yFix;
+    }
 }
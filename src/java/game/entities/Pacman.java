@@ -1,6 +1,5 @@
 package game.entities;
 
-import game.Game;
 import game.Observer;
 import game.Sujet;
 import game.entities.ghosts.Ghost;
@@ -45,7 +44,7 @@ public class Pacman extends MovingEntity implements Sujet {
 
         if (new_xSpd == 0 && new_ySpd == 0) return;
 
-        if (!Game.getFirstInput()) Game.setFirstInput(true);
+        if (!game.getFirstInput()) game.setFirstInput(true);
 
         if (Math.abs(new_xSpd) != Math.abs(new_ySpd)) {
             xSpd = new_xSpd;
@@ -64,14 +63,15 @@ public class Pacman extends MovingEntity implements Sujet {
     @Override
     public void update() {
         //On teste à chaque fois si Pacman est en contact avec une PacGum, une SuperPacGum, ou un fantôme, et les observers sont notifiés en conséquence
-        PacGum pg = (PacGum) collisionDetector.checkCollision(this, PacGum.class);
-        if (pg != null) {
-            notifyObserverPacGumEaten(pg);
+        PelletGrid pellets = game.getPellets();
+        int pg = collisionDetector.findPacGum(this);
+        if (pg >= 0) {
+            notifyObserverPacGumEaten(pellets.getColumn(pg), pellets.getRow(pg));
         }
 
-        SuperPacGum spg = (SuperPacGum) collisionDetector.checkCollision(this, SuperPacGum.class);
-        if (spg != null) {
-            notifyObserverSuperPacGumEaten(spg);
+        int spg = collisionDetector.findSuperPacGum(this);
+        if (spg >= 0) {
+            notifyObserverSuperPacGumEaten(pellets.getColumn(spg), pellets.getRow(spg));
         }
 
         Ghost gh = (Ghost) collisionDetector.checkCollision(this, Ghost.class);
@@ -100,13 +100,13 @@ public class Pacman extends MovingEntity implements Sujet {
     }
 
     @Override
-    public void notifyObserverPacGumEaten(PacGum pg) {
-        observerCollection.forEach(obs -> obs.updatePacGumEaten(pg));
+    public void notifyObserverPacGumEaten(int xx, int yy) {
+        observerCollection.forEach(obs -> obs.updatePacGumEaten(xx, yy));
     }
 
     @Override
-    public void notifyObserverSuperPacGumEaten(SuperPacGum spg) {
-        observerCollection.forEach(obs -> obs.updateSuperPacGumEaten(spg));
+    public void notifyObserverSuperPacGumEaten(int xx, int yy) {
+        observerCollection.forEach(obs -> obs.updateSuperPacGumEaten(xx, yy));
     }
 
     @Override
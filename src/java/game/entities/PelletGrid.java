@@ -0,0 +1,202 @@
+package game.entities;
+
+import game.utils.SpriteAtlas;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
+
+//PacGums et SuperPacGums du niveau, rangées par case de la grille du niveau : un bit par case et par type (BitSet), au lieu d'un objet avec sa hitbox par PacGum
+//Manger une PacGum revient à effacer son bit, le nombre de PacGums restantes est tenu à jour (niveau terminé quand il tombe à 0), et le rendu ne parcourt que les bits à 1
+//Les cases sont numérotées ligne par ligne (tile = yy * cellsPerRow + xx)
+public class PelletGrid {
+    public static final Color COLOR = new Color(255, 183, 174); //Couleur des PacGums et des SuperPacGums, créée une seule fois
+
+    //Hitbox d'une PacGum : un carré de 4 pixels décalé de 8 pixels par rapport au coin de sa case ; celle d'une SuperPacGum : un carré de 16 pixels au coin de sa case
+    public static final int PAC_GUM_SIZE = 4;
+    public static final int PAC_GUM_OFFSET = 8;
+    public static final int SUPER_PAC_GUM_SIZE = 16;
+
+    //Image d'une SuperPacGum, dessinée une seule fois
+    private static final BufferedImage superPacGumFrame = createSuperPacGumFrame();
+
+    private final int cellsPerRow;
+    private final int cellsPerColumn;
+    private final int cellSize;
+    private final BitSet pacGums;
+    private final BitSet superPacGums;
+    private int remainingPacGums = 0;
+    private int remainingSuperPacGums = 0;
+
+    private int frameCount = 0; //Pour faire clignoter les SuperPacGums
+
+    public PelletGrid(int cellsPerRow, int cellsPerColumn, int cellSize) {
+        this.cellsPerRow = cellsPerRow;
+        this.cellsPerColumn = cellsPerColumn;
+        this.cellSize = cellSize;
+        pacGums = new BitSet(cellsPerRow * cellsPerColumn);
+        superPacGums = new BitSet(cellsPerRow * cellsPerColumn);
+    }
+
+    public void addPacGum(int xx, int yy) {
+        int tile = getTile(xx, yy);
+        if (!pacGums.get(tile)) {
+            pacGums.set(tile);
+            remainingPacGums++;
+        }
+    }
+
+    public void addSuperPacGum(int xx, int yy) {
+        int tile = getTile(xx, yy);
+        if (!superPacGums.get(tile)) {
+            superPacGums.set(tile);
+            remainingSuperPacGums++;
+        }
+    }
+
+    public void update() {
+        frameCount++;
+    }
+
+    //Pour faire en sorte que les SuperPacGums clignotent, elles ne sont visibles que 30 frames sur 60
+    public boolean isSuperPacGumVisible() {
+        return frameCount % 60 < 30;
+    }
+
+    //Case de la PacGum dont la hitbox contient le point (px, py), -1 s'il n'y en a pas (une seule case possible, les PacGums étant plus petites qu'une case)
+    public int findPacGum(int px, int py) {
+        int dx = px - PAC_GUM_OFFSET;
+        int dy = py - PAC_GUM_OFFSET;
+        if (dx < 0 || dy < 0 || dx % cellSize >= PAC_GUM_SIZE || dy % cellSize >= PAC_GUM_SIZE) return -1;
+        int xx = dx / cellSize;
+        int yy = dy / cellSize;
+        if (xx >= cellsPerRow || yy >= cellsPerColumn) return -1;
+        int tile = yy * cellsPerRow + xx;
+        return pacGums.get(tile) ? tile : -1;
+    }
+
+    //Case de la SuperPacGum dont la hitbox contient le point (px, py), -1 s'il n'y en a pas (les cases candidates sont parcourues colonne par colonne)
+    public int findSuperPacGum(int px, int py) {
+        int x0 = Math.max(Math.floorDiv(px - SUPER_PAC_GUM_SIZE, cellSize) + 1, 0);
+        int y0 = Math.max(Math.floorDiv(py - SUPER_PAC_GUM_SIZE, cellSize) + 1, 0);
+        int x1 = Math.min(Math.floorDiv(px, cellSize), cellsPerRow - 1);
+        int y1 = Math.min(Math.floorDiv(py, cellSize), cellsPerColumn - 1);
+        for (int xx = x0; xx <= x1; xx++) {
+            for (int yy = y0; yy <= y1; yy++) {
+                int tile = yy * cellsPerRow + xx;
+                if (superPacGums.get(tile)) return tile;
+            }
+        }
+        return -1;
+    }
+
+    //Une PacGum mangée disparaît de la grille
+    public void eatPacGum(int xx, int yy) {
+        int tile = getTile(xx, yy);
+        if (pacGums.get(tile)) {
+            pacGums.clear(tile);
+            remainingPacGums--;
+        }
+    }
+
+    public void eatSuperPacGum(int xx, int yy) {
+        int tile = getTile(xx, yy);
+        if (superPacGums.get(tile)) {
+            superPacGums.clear(tile);
+            remainingSuperPacGums--;
+        }
+    }
+
+    public boolean hasPacGum(int xx, int yy) {
+        return pacGums.get(getTile(xx, yy));
+    }
+
+    public boolean hasSuperPacGum(int xx, int yy) {
+        return superPacGums.get(getTile(xx, yy));
+    }
+
+    //Parcours des PacGums restantes : for (int tile = nextPacGum(0); tile >= 0; tile = nextPacGum(tile + 1))
+    public int nextPacGum(int fromTile) {
+        return pacGums.nextSetBit(fromTile);
+    }
+
+    public int nextSuperPacGum(int fromTile) {
+        return superPacGums.nextSetBit(fromTile);
+    }
+
+    //Copie des SuperPacGums restantes (pour un thread de rendu, qui ne doit pas lire la grille pendant que le jeu la modifie)
+    public BitSet copySuperPacGums() {
+        return (BitSet) superPacGums.clone();
+    }
+
+    public int getRemainingPacGums() {
+        return remainingPacGums;
+    }
+
+    public int getRemainingSuperPacGums() {
+        return remainingSuperPacGums;
+    }
+
+    public int getRemainingCount() {
+        return remainingPacGums + remainingSuperPacGums;
+    }
+
+    //Toutes les PacGums et SuperPacGums ont été mangées
+    public boolean isCleared() {
+        return remainingPacGums + remainingSuperPacGums == 0;
+    }
+
+    public int getTile(int xx, int yy) {
+        return yy * cellsPerRow + xx;
+    }
+
+    public int getColumn(int tile) {
+        return tile % cellsPerRow;
+    }
+
+    public int getRow(int tile) {
+        return tile / cellsPerRow;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public Rectangle getPacGumHitbox(int xx, int yy) {
+        return new Rectangle(xx * cellSize + PAC_GUM_OFFSET, yy * cellSize + PAC_GUM_OFFSET, PAC_GUM_SIZE, PAC_GUM_SIZE);
+    }
+
+    public Rectangle getSuperPacGumHitbox(int xx, int yy) {
+        return new Rectangle(xx * cellSize, yy * cellSize, SUPER_PAC_GUM_SIZE, SUPER_PAC_GUM_SIZE);
+    }
+
+    public static BufferedImage getSuperPacGumFrame() {
+        return superPacGumFrame;
+    }
+
+    //Rendu des PacGums restantes
+    public void renderPacGums(Graphics2D g) {
+        g.setColor(COLOR);
+        for (int tile = pacGums.nextSetBit(0); tile >= 0; tile = pacGums.nextSetBit(tile + 1)) {
+            g.fillRect(getColumn(tile) * cellSize + PAC_GUM_OFFSET, getRow(tile) * cellSize + PAC_GUM_OFFSET, PAC_GUM_SIZE, PAC_GUM_SIZE);
+        }
+    }
+
+    //Rendu des SuperPacGums restantes, si elles sont visibles
+    public void renderSuperPacGums(Graphics2D g) {
+        if (!isSuperPacGumVisible()) return;
+        g.setColor(COLOR);
+        for (int tile = superPacGums.nextSetBit(0); tile >= 0; tile = superPacGums.nextSetBit(tile + 1)) {
+            g.fillOval(getColumn(tile) * cellSize, getRow(tile) * cellSize, SUPER_PAC_GUM_SIZE, SUPER_PAC_GUM_SIZE);
+        }
+    }
+
+    private static BufferedImage createSuperPacGumFrame() {
+        BufferedImage image = SpriteAtlas.createCompatibleImage(SUPER_PAC_GUM_SIZE, SUPER_PAC_GUM_SIZE);
+        Graphics2D g = image.createGraphics();
+        g.setColor(COLOR);
+        g.fillOval(0, 0, SUPER_PAC_GUM_SIZE, SUPER_PAC_GUM_SIZE);
+        g.dispose();
+        return image;
+    }
+}
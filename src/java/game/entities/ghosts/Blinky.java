@@ -6,6 +6,6 @@ import game.ghostStrategies.BlinkyStrategy;
 public class Blinky extends Ghost {
     public Blinky(int xPos, int yPos) {
         super(xPos, yPos, "blinky.png");
-        setStrategy(new BlinkyStrategy());
+        setStrategy(new BlinkyStrategy(this));
     }
 }
@@ -1,83 +1,97 @@
 package game.entities.ghosts;
 
-import game.Game;
 import game.entities.MovingEntity;
 import game.ghostStates.*;
+
+import static game.ghostStates.GhostStateMachine.*;
 import game.ghostStrategies.IGhostStrategy;
+import game.managers.DifficultyLevel;
+import game.utils.ResourceCache;
+import game.utils.SpriteAtlas;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 
 //Classe abtraite pour décrire les fantômes
 public abstract class Ghost extends MovingEntity {
-    protected GhostState state;
+    //Case juste au dessus de la maison des fantômes, et case au milieu de la maison
+    public static final int HOUSE_DOOR_X = 208;
+    public static final int HOUSE_DOOR_Y = 168;
+    public static final int HOUSE_CENTER_Y = 200;
 
-    protected final GhostState chaseMode;
-    protected final GhostState scatterMode;
-    protected final GhostState frightenedMode;
-    protected final GhostState eatenMode;
-    protected final GhostState houseMode;
+    //État courant (numéro d'état de GhostStateMachine), et comportement du fantôme dans chaque état, rangé à l'indice de cet état
+    protected byte state = HOUSE; //état initial
+    protected final GhostState[] behaviours = new GhostState[STATE_COUNT];
 
     protected int modeTimer = 0;
     protected int frightenedTimer = 0;
     protected boolean isChasing = false;
 
-    protected static BufferedImage frightenedSprite1;
-    protected static BufferedImage frightenedSprite2;
-    protected static BufferedImage eatenSprite;
+    //Sprites communs à tous les fantômes, découpés à l'avance (une seule direction pour les fantômes effrayés, une image par direction pour les fantômes mangés)
+    protected static SpriteAtlas frightenedSprite1;
+    protected static SpriteAtlas frightenedSprite2;
+    protected static SpriteAtlas eatenSprite;
 
     protected IGhostStrategy strategy;
 
+    //Position ciblée par le fantôme, recalculée à chaque décision de direction (réutilisée pour ne pas allouer de tableau)
+    private final int[] targetPosition = new int[2];
+
     public Ghost(int xPos, int yPos, String spriteName) {
         super(32, xPos, yPos, 2, spriteName, 2, 0.1f);
 
-        //Création des différents états des fantômes
-        chaseMode = new ChaseMode(this);
-        scatterMode = new ScatterMode(this);
-        frightenedMode = new FrightenedMode(this);
-        eatenMode = new EatenMode(this);
-        houseMode = new HouseMode(this);
-
-        state = houseMode; //état initial
+        //Création des comportements des fantômes dans les différents états
+        behaviours[HOUSE] = new HouseMode(this);
+        behaviours[CHASE] = new ChaseMode(this);
+        behaviours[SCATTER] = new ScatterMode(this);
+        behaviours[FRIGHTENED] = new FrightenedMode(this);
+        behaviours[EATEN] = new EatenMode(this);
 
         try {
-            frightenedSprite1 = ImageIO.read(getClass().getClassLoader().getResource("img/ghost_frightened.png"));
-            frightenedSprite2 = ImageIO.read(getClass().getClassLoader().getResource("img/ghost_frightened_2.png"));
-            eatenSprite = ImageIO.read(getClass().getClassLoader().getResource("img/ghost_eaten.png"));
+            //Ces images sont décodées une seule fois, par le premier fantôme créé ; les suivants les retrouvent dans le cache
+            frightenedSprite1 = ResourceCache.getSpriteAtlas("ghost_frightened.png", size, 2);
+            frightenedSprite2 = ResourceCache.getSpriteAtlas("ghost_frightened_2.png", size, 2);
+            eatenSprite = ResourceCache.getSpriteAtlas("ghost_eaten.png", size, 1);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    //Méthodes pour les transitions entre les différents états
+    //Notification d'un événement (numéro d'événement de GhostStateMachine) : s'il existe une transition pour cet événement dans l'état courant, l'état du fantôme change en conséquence
+    public boolean handleEvent(byte event) {
+        byte next = getTransition(state, event);
+        if (next == NONE) return false;
+        enterState(next == RESUME ? (isChasing ? CHASE : SCATTER) : next);
+        return true;
+    }
+
+    private void enterState(byte next) {
+        if (hasFlag(next, FRIGHTENED_TIMER)) frightenedTimer = 0;
+        state = next;
+    }
+
+    //Changement d'état forcé, sans passer par la table des transitions
     public void switchChaseMode() {
-        state = chaseMode;
+        enterState(CHASE);
     }
     public void switchScatterMode() {
-        state = scatterMode;
+        enterState(SCATTER);
     }
 
     public void switchFrightenedMode() {
-        frightenedTimer = 0;
-        state = frightenedMode;
+        enterState(FRIGHTENED);
     }
 
     public void switchEatenMode() {
-        state = eatenMode;
+        enterState(EATEN);
     }
 
     public void switchHouseMode() {
-        state = houseMode;
+        enterState(HOUSE);
     }
 
     public void switchChaseModeOrScatterMode() {
-        if (isChasing) {
-            switchChaseMode();
-        }else{
-            switchScatterMode();
-        }
+        enterState(isChasing ? CHASE : SCATTER);
     }
 
     public IGhostStrategy getStrategy() {
@@ -88,63 +102,70 @@ public abstract class Ghost extends MovingEntity {
         this.strategy = strategy;
     }
 
+    //Comportement du fantôme dans son état courant
     public GhostState getState() {
+        return behaviours[state];
+    }
+
+    public byte getStateId() {
         return state;
     }
 
+    public int[] getTargetPosition() {
+        return targetPosition;
+    }
+
     @Override
     public void update() {
-        if (!Game.getFirstInput()) return; //Les fantômes ne bougent pas tant que le joueur n'a pas bougé
-
-        //Si le fantôme est dans l'état effrayé, un timer de 7s se lance, et l'état sera notifié ensuite afin d'appliquer la transition adéquate
-        if (state == frightenedMode) {
-            frightenedTimer++;
+        if (!game.getFirstInput()) return; //Les fantômes ne bougent pas tant que le joueur n'a pas bougé
+        DifficultyLevel difficulty = game.getDifficulty();
 
-            if (frightenedTimer >= (60 * 7)) {
-                state.timerFrightenedModeOver();
-            }
+        //Si le fantôme est dans l'état effrayé, un timer se lance (7s au premier niveau de difficulté, moins ensuite), et l'événement de fin du timer est ensuite envoyé à la machine à états
+        if (hasFlag(state, FRIGHTENED_TIMER) && ++frightenedTimer >= difficulty.getFrightenedTicks()) {
+            handleEvent(FRIGHTENED_TIMER_OVER);
         }
 
-        //Les fantômes alternent entre l'état chaseMode et scatterMode avec un timer
-        //Si le fantôme est dans l'état chaseMode ou scatterMode, un timer se lance, et au bout de 5s ou 20s selon l'état, l'état est notifié ensuite afin d'appliquer la transition adéquate
-        if (state == chaseMode || state == scatterMode) {
-            modeTimer++;
-
-            if ((isChasing && modeTimer >= (60 * 20)) || (!isChasing && modeTimer >= (60 * 5))) {
-                state.timerModeOver();
-                isChasing = !isChasing;
-            }
+        //Les fantômes alternent entre l'état de poursuite et l'état de dispersion avec un timer
+        //Si le fantôme est dans l'un de ces deux états, un timer se lance, et au bout de 20s ou 5s selon l'état (la dispersion raccourcit avec la difficulté), l'événement de fin du timer est envoyé à la machine à états
+        if (hasFlag(state, MODE_TIMER) && ++modeTimer >= (isChasing ? difficulty.getChaseTicks() : difficulty.getScatterTicks())) {
+            handleEvent(MODE_TIMER_OVER);
+            isChasing = !isChasing;
         }
 
-        //Si le fantôme est sur la case juste au dessus de sa maison, l'état est notifié afin d'appliquer la transition adéquate
-        if (xPos == 208 && yPos == 168) {
-            state.outsideHouse();
-        }
+        //Le fantôme parcourt sa vitesse de base multipliée par la difficulté (en virgule fixe, la distance peut être une fraction de pixel)
+        //Il s'arrête sur chaque case traversée (onTileReached), pour les transitions liées à la maison et le choix de sa prochaine direction
+        move(spd * difficulty.getGhostSpeedMultiplierFixed());
+    }
 
-        //Si le fantôme est sur la case au milieu sa maison, l'état est notifié afin d'appliquer la transition adéquate
-        if (xPos == 208 && yPos == 200) {
-            state.insideHouse();
+    @Override
+    protected void onTileReached() {
+        //Si le fantôme est sur la case juste au dessus de sa maison, ou sur la case au milieu de sa maison, l'événement correspondant est envoyé à la machine à états
+        if (xPos == HOUSE_DOOR_X) {
+            if (yPos == HOUSE_DOOR_Y) {
+                handleEvent(OUTSIDE_HOUSE);
+            }else if (yPos == HOUSE_CENTER_Y) {
+                handleEvent(INSIDE_HOUSE);
+            }
         }
 
-        //Selon l'état, le fantôme calcule sa prochaine direction, et sa position est ensuite mise à jour
-        state.computeNextDir();
-        updatePosition();
+        //Selon l'état, le fantôme calcule sa prochaine direction
+        behaviours[state].computeNextDir();
     }
 
     @Override
-    public void render(Graphics2D g) {
+    public BufferedImage getFrame() {
         //Différents sprites sont utilisés selon l'état du fantôme (après réflexion, il aurait peut être été plus judicieux de faire une méthode "render" dans GhostState)
-        if (state == frightenedMode) {
-            if (frightenedTimer <= (60 * 5) || frightenedTimer%20 > 10) {
-                g.drawImage(frightenedSprite1.getSubimage((int)subimage * size, 0, size, size), this.xPos, this.yPos,null);
+        if (state == FRIGHTENED) {
+            //Le fantôme clignote pendant les 2 dernières secondes de l'état effrayé
+            if (frightenedTimer <= game.getDifficulty().getFrightenedTicks() - 60 * 2 || frightenedTimer%20 > 10) {
+                return frightenedSprite1.getFrame(0, (int)subimage);
             }else{
-                g.drawImage(frightenedSprite2.getSubimage((int)subimage * size, 0, size, size), this.xPos, this.yPos,null);
+                return frightenedSprite2.getFrame(0, (int)subimage);
             }
-        }else if (state == eatenMode) {
-            g.drawImage(eatenSprite.getSubimage(direction * size, 0, size, size), this.xPos, this.yPos,null);
+        }else if (state == EATEN) {
+            return eatenSprite.getFrame(direction, 0);
         }else{
-            g.drawImage(sprite.getSubimage((int)subimage * size + direction * size * nbSubimagesPerCycle, 0, size, size), this.xPos, this.yPos,null);
+            return spriteAtlas.getFrame(direction, (int)subimage);
         }
-
     }
 }
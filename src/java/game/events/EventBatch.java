@@ -0,0 +1,51 @@
+package game.events;
+
+import java.util.Arrays;
+
+//Événements survenus pendant un tick, rangés dans des tableaux de types primitifs
+//Les lots sont réutilisés par le bus d'événements une fois vidés : en régime établi, publier un événement ne crée aucun objet
+public final class EventBatch {
+    private long tick;
+    private int size;
+    private byte[] types = new byte[16];
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+
+    void add(byte type, int x, int y) {
+        if (size == types.length) {
+            types = Arrays.copyOf(types, size * 2);
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+        }
+        types[size] = type;
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+    }
+
+    void reset(long tick) {
+        this.tick = tick;
+        size = 0;
+    }
+
+    //Numéro du tick pendant lequel les événements sont survenus (à partir de 0)
+    public long getTick() {
+        return tick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte getType(int i) {
+        return types[i];
+    }
+
+    public int getX(int i) {
+        return xs[i];
+    }
+
+    public int getY(int i) {
+        return ys[i];
+    }
+}
@@ -0,0 +1,100 @@
+package game.events;
+
+import game.Observer;
+import game.entities.ghosts.Ghost;
+import game.ghostStates.GhostStateMachine;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+//Bus d'événements du jeu : les événements d'un tick sont regroupés dans un lot, publié à la fin du tick, et transmis aux abonnés lorsque le bus est vidé (une fois par frame)
+//Le thread du jeu ne fait qu'ajouter les événements au lot courant : il n'appelle jamais les abonnés, et n'attend donc jamais l'interface ou le rendu
+//Le bus observe Pacman avant le jeu : l'état d'un fantôme touché est encore celui du moment du contact, on sait donc s'il a été mangé ou s'il a tué Pacman
+public class EventBus implements Observer {
+    private final List<GameEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    //Lots publiés en attente d'être transmis, et lots vides prêts à être réutilisés
+    private final Queue<EventBatch> published = new ConcurrentLinkedQueue<>();
+    private final Queue<EventBatch> pool = new ConcurrentLinkedQueue<>();
+
+    //Lot du tick en cours (thread du jeu uniquement)
+    private EventBatch current = new EventBatch();
+    private long tick = 0;
+
+    public void subscribe(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    //Ajout d'un événement au tick en cours (thread du jeu)
+    public void post(byte type, int x, int y) {
+        current.add(type, x, y);
+    }
+
+    //Fin du tick (appelée par Game.update) : le lot est publié s'il contient des événements ; sans abonné, il est simplement vidé
+    public void endTick() {
+        if (current.size() > 0 && !listeners.isEmpty()) {
+            published.add(current);
+            EventBatch batch = pool.poll();
+            current = batch != null ? batch : new EventBatch();
+        }
+        current.reset(++tick);
+    }
+
+    //Transmission de tous les lots publiés aux abonnés, dans l'ordre des ticks, puis remise des lots dans la réserve ; renvoie le nombre d'événements transmis
+    //Un seul thread doit vider le bus (le thread de rendu avec une fenêtre, le thread de la simulation sans fenêtre)
+    public int drain() {
+        int count = 0;
+        EventBatch batch;
+        while ((batch = published.poll()) != null) {
+            for (int i = 0; i < batch.size(); i++) {
+                for (GameEventListener listener : listeners) {
+                    listener.onEvent(batch.getType(i), batch.getTick(), batch.getX(i), batch.getY(i));
+                }
+            }
+            count += batch.size();
+            pool.add(batch);
+        }
+        if (count > 0) {
+            for (GameEventListener listener : listeners) {
+                listener.onEventsDrained();
+            }
+        }
+        return count;
+    }
+
+    //Numéro du tick en cours
+    public long getTick() {
+        return tick;
+    }
+
+    //Lot du tick en cours (thread du jeu uniquement)
+    EventBatch getCurrentBatch() {
+        return current;
+    }
+
+    @Override
+    public void updatePacGumEaten(int xx, int yy) {
+        post(GameEvent.PELLET_EATEN, xx, yy);
+    }
+
+    @Override
+    public void updateSuperPacGumEaten(int xx, int yy) {
+        post(GameEvent.SUPER_EATEN, xx, yy);
+    }
+
+    @Override
+    public void updateGhostCollision(Ghost gh) {
+        byte state = gh.getStateId();
+        if (GhostStateMachine.hasFlag(state, GhostStateMachine.VULNERABLE)) {
+            post(GameEvent.GHOST_EATEN, gh.getxPos(), gh.getyPos());
+        }else if (!GhostStateMachine.hasFlag(state, GhostStateMachine.HARMLESS)) {
+            post(GameEvent.DEATH, gh.getxPos(), gh.getyPos());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package game.events;
+
+//Types des événements du jeu transmis par le bus d'événements (EventBus)
+//Un événement n'est pas un objet : c'est un type (un octet) et deux entiers, rangés dans un lot d'événements (EventBatch)
+public final class GameEvent {
+    public static final byte PELLET_EATEN = 0; //x, y : case de la PacGum mangée
+    public static final byte SUPER_EATEN = 1; //x, y : case de la SuperPacGum mangée
+    public static final byte GHOST_EATEN = 2; //x, y : position du fantôme mangé (en pixels)
+    public static final byte DEATH = 3; //x, y : position du fantôme qui a touché Pacman (en pixels)
+
+    private static final String[] NAMES = {"PELLET_EATEN", "SUPER_EATEN", "GHOST_EATEN", "DEATH"};
+
+    private GameEvent() {}
+
+    public static String getName(byte type) {
+        return type >= 0 && type < NAMES.length ? NAMES[type] : "UNKNOWN(" + type + ")";
+    }
+}
@@ -0,0 +1,9 @@
+package game.events;
+
+//Abonné au bus d'événements du jeu ; il est appelé par le thread qui vide le bus (une fois par frame), jamais par le thread du jeu pendant un tick
+public interface GameEventListener {
+    void onEvent(byte type, long tick, int x, int y);
+
+    //Appelé une fois à la fin de chaque vidage du bus qui a transmis au moins un événement (pour regrouper les mises à jour coûteuses, comme celles de l'interface)
+    default void onEventsDrained() {}
+}
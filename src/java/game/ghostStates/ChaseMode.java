@@ -8,21 +8,15 @@ public class ChaseMode extends GhostState{
         super(ghost);
     }
 
-    //Transition lorsqu'une SuperPacGum est mangée
-    @Override
-    public void superPacGumEaten() {
-        ghost.switchFrightenedMode();
-    }
-
-    //Transition lorsque le timer de l'état courant est terminé (il alterne entre ChaseMode et ScatterMode)
+    //Dans cet état, la position ciblée dépend de la stratégie du fantôme
     @Override
-    public void timerModeOver() {
-        ghost.switchScatterMode();
+    public void computeTargetPosition(int[] position) {
+        ghost.getStrategy().computeChaseTargetPosition(position);
     }
 
-    //Dans cet état, la position ciblée dépend de la stratégie du fantôme
+    //Dans cet état, le fantôme poursuit sa cible par le plus court chemin
     @Override
-    public int[] getTargetPosition() {
-        return ghost.getStrategy().getChaseTargetPosition();
+    protected boolean useNavigationField() {
+        return true;
     }
 }
@@ -1,10 +1,12 @@
 package game.ghostStates;
 
 import game.entities.ghosts.Ghost;
+import game.utils.NavigationField;
+import game.utils.PathFinder;
 import game.utils.Utils;
 import game.utils.WallCollisionDetector;
 
-//Classe abstrate pour décrire les différents états de fantômes
+//Classe abstrate pour décrire le comportement des fantômes dans les différents états (cible, murs ignorés, navigation) ; les transitions entre états sont décrites par GhostStateMachine
 public abstract class GhostState {
     protected Ghost ghost;
 
@@ -12,17 +14,26 @@ public abstract class GhostState {
         this.ghost = ghost;
     }
 
-    //Différentes transitions possibles d'un état vers un autre
-    public void superPacGumEaten() {}
-    public void timerModeOver() {}
-    public void timerFrightenedModeOver() {}
-    public void eaten() {}
-    public void outsideHouse() {}
-    public void insideHouse() {}
+    //Calcule le point que va cibler le fantôme, et l'écrit dans position (position[0] : x, position[1] : y)
+    public void computeTargetPosition(int[] position) {
+        position[0] = 0;
+        position[1] = 0;
+    }
+
+    //Indique si le fantôme peut traverser les murs de la maison des fantômes dans cet état
+    protected boolean ignoreGhostHouses() {
+        return false;
+    }
 
-    public int[] getTargetPosition(){
-        return new int[2];
-    } //retourne le point que va cibler le fantôme
+    //Indique si le fantôme suit le plus court chemin vers sa cible (champ de navigation du niveau) plutôt que la ligne droite
+    protected boolean useNavigationField() {
+        return false;
+    }
+
+    //Indique si le trajet vers la cible est planifié par le service de recherche de chemin de la partie (chemins gardés en cache, adapté aux cibles fixes)
+    protected boolean usePathFinder() {
+        return false;
+    }
 
     //Méthode pour calculer la prochaine direction que le fantôme va prendre
     public void computeNextDir() {
@@ -32,12 +43,30 @@ public abstract class GhostState {
         if (!ghost.onTheGrid()) return; //Le fantôme doit être sur une "case" de la zone de jeu
         if (!ghost.onGameplayWindow()) return;  //Le fantôme doit être dans la zone de jeu
 
-        double minDist = Double.MAX_VALUE; //distance minimale courante entre le fantôme et la cible selon sa prochaine direction
+        //La cible est calculée une seule fois par décision, dans un tableau appartenant au fantôme (aucune allocation)
+        int[] target = ghost.getTargetPosition();
+        computeTargetPosition(target);
+        boolean ignoreGhostHouses = ignoreGhostHouses();
+
+        //Avec le champ de navigation, chaque direction est évaluée par la longueur du chemin restant depuis la case voisine (une simple lecture dans une table, ou un chemin du cache de la recherche de chemin)
+        //Sans champ de navigation, ou si le fantôme n'est pas sur une case du labyrinthe, on se rabat sur la distance à vol d'oiseau
+        PathFinder pathFinder = usePathFinder() ? ghost.getGame().getPathFinder(ignoreGhostHouses) : null;
+        NavigationField field = pathFinder != null ? pathFinder.getNavigationField() : useNavigationField() ? ghost.getGame().getNavigationField(ignoreGhostHouses) : null;
+        int fromNode = -1;
+        int targetNode = -1;
+        if (field != null) {
+            fromNode = field.getNode(ghost.getxPos(), ghost.getyPos());
+            targetNode = field.getNearestNode(target[0], target[1]);
+            if (fromNode == -1 || targetNode == -1) field = null;
+        }
+
+        //On compare les distances au carré : l'ordre est le même qu'avec les distances, sans racine carrée
+        int minDist = Integer.MAX_VALUE; //distance minimale courante entre le fantôme et la cible selon sa prochaine direction
 
         //Si le fantôme va actuellement vers la gauche et qu'il n'y a pas de mur à gauche...
-        if (ghost.getxSpd() <= 0 && !WallCollisionDetector.checkWallCollision(ghost, -ghost.getSpd(), 0)) {
+        if (ghost.getxSpd() <= 0 && !WallCollisionDetector.checkWallCollision(ghost, -ghost.getSpd(), 0, ignoreGhostHouses)) {
             //On regarde la distance entre la position ciblée et la position potentielle du fantôme si ce dernier irait vers la gauche
-            double distance = Utils.getDistance(ghost.getxPos() - ghost.getSpd(), ghost.getyPos(), getTargetPosition()[0], getTargetPosition()[1]);
+            int distance = field != null ? pathDistance(field, pathFinder, fromNode, 0, targetNode) : Utils.getSquaredDistance(ghost.getxPos() - ghost.getSpd(), ghost.getyPos(), target[0], target[1]);
 
             //Si cette distance est inférieure à la distance minimale courante, on dit que le fantôme va vers la gauche et on met à jour la distance minimale
             if (distance < minDist) {
@@ -48,8 +77,8 @@ public abstract class GhostState {
         }
 
         //Même chose en testant vers la droite
-        if (ghost.getxSpd() >= 0 && !WallCollisionDetector.checkWallCollision(ghost, ghost.getSpd(), 0)) {
-            double distance = Utils.getDistance(ghost.getxPos() + ghost.getSpd(), ghost.getyPos(),  getTargetPosition()[0], getTargetPosition()[1]);
+        if (ghost.getxSpd() >= 0 && !WallCollisionDetector.checkWallCollision(ghost, ghost.getSpd(), 0, ignoreGhostHouses)) {
+            int distance = field != null ? pathDistance(field, pathFinder, fromNode, 1, targetNode) : Utils.getSquaredDistance(ghost.getxPos() + ghost.getSpd(), ghost.getyPos(), target[0], target[1]);
             if (distance < minDist) {
                 new_xSpd = ghost.getSpd();
                 new_ySpd = 0;
@@ -58,8 +87,8 @@ public abstract class GhostState {
         }
 
         //Même chose en testant vers le haut
-        if (ghost.getySpd() <= 0 && !WallCollisionDetector.checkWallCollision(ghost, 0, -ghost.getSpd())) {
-            double distance = Utils.getDistance(ghost.getxPos(), ghost.getyPos() - ghost.getSpd(), getTargetPosition()[0], getTargetPosition()[1]);
+        if (ghost.getySpd() <= 0 && !WallCollisionDetector.checkWallCollision(ghost, 0, -ghost.getSpd(), ignoreGhostHouses)) {
+            int distance = field != null ? pathDistance(field, pathFinder, fromNode, 2, targetNode) : Utils.getSquaredDistance(ghost.getxPos(), ghost.getyPos() - ghost.getSpd(), target[0], target[1]);
             if (distance < minDist) {
                 new_xSpd = 0;
                 new_ySpd = -ghost.getSpd();
@@ -68,8 +97,8 @@ public abstract class GhostState {
         }
 
         //Même chose en testant vers le bas
-        if (ghost.getySpd() >= 0 && !WallCollisionDetector.checkWallCollision(ghost, 0, ghost.getSpd())) {
-            double distance = Utils.getDistance(ghost.getxPos(), ghost.getyPos() + ghost.getSpd(), getTargetPosition()[0], getTargetPosition()[1]);
+        if (ghost.getySpd() >= 0 && !WallCollisionDetector.checkWallCollision(ghost, 0, ghost.getSpd(), ignoreGhostHouses)) {
+            int distance = field != null ? pathDistance(field, pathFinder, fromNode, 3, targetNode) : Utils.getSquaredDistance(ghost.getxPos(), ghost.getyPos() + ghost.getSpd(), target[0], target[1]);
             if (distance < minDist) {
                 new_xSpd = 0;
                 new_ySpd = ghost.getSpd();
@@ -93,4 +122,11 @@ public abstract class GhostState {
             }
         }
     }
+
+    //Longueur du chemin restant vers la cible en passant par la case voisine dans la direction donnée (0 : gauche, 1 : droite, 2 : haut, 3 : bas)
+    private int pathDistance(NavigationField field, PathFinder pathFinder, int fromNode, int direction, int targetNode) {
+        int neighbor = field.getNeighbor(fromNode, direction);
+        int distance = pathFinder != null ? pathFinder.getPathLength(neighbor, targetNode) : field.getDistance(neighbor, targetNode);
+        return distance < 0 ? Integer.MAX_VALUE - 1 : distance;
+    }
 }
@@ -0,0 +1,75 @@
+package game.ghostStates;
+
+import java.util.Arrays;
+
+//Machine à états des fantômes, décrite par des tables : les états et les événements sont des numéros (octets), et la matrice des transitions donne le prochain état pour chaque couple (état, événement)
+//Une transition ne coûte donc qu'une lecture dans un tableau, sans appel virtuel ni test de type ; le comportement du fantôme dans chaque état (cible, murs ignorés...) reste décrit par les classes GhostState
+public final class GhostStateMachine {
+    //États
+    public static final byte HOUSE = 0;
+    public static final byte CHASE = 1;
+    public static final byte SCATTER = 2;
+    public static final byte FRIGHTENED = 3;
+    public static final byte EATEN = 4;
+    public static final int STATE_COUNT = 5;
+
+    //Événements
+    public static final byte SUPER_PAC_GUM_EATEN = 0;
+    public static final byte MODE_TIMER_OVER = 1;
+    public static final byte FRIGHTENED_TIMER_OVER = 2;
+    public static final byte GHOST_EATEN = 3;
+    public static final byte OUTSIDE_HOUSE = 4;
+    public static final byte INSIDE_HOUSE = 5;
+    public static final int EVENT_COUNT = 6;
+
+    //Valeurs particulières de la matrice : pas de transition, ou retour à la poursuite ou à la dispersion selon la phase en cours du fantôme
+    public static final byte NONE = -1;
+    public static final byte RESUME = -2;
+
+    //Propriétés des états (un bit chacune)
+    public static final int MODE_TIMER = 1; //Le timer d'alternance poursuite/dispersion avance
+    public static final int FRIGHTENED_TIMER = 2; //Le timer de l'état effrayé avance (il est remis à zéro en entrant dans l'état)
+    public static final int VULNERABLE = 4; //Le fantôme est mangé s'il touche Pacman
+    public static final int HARMLESS = 8; //Le fantôme ne fait rien à Pacman s'il le touche
+
+    private static final String[] STATE_NAMES = {"maison", "poursuite", "dispersion", "effrayé", "mangé"};
+
+    private static final byte[] TRANSITIONS = new byte[STATE_COUNT * EVENT_COUNT];
+    private static final byte[] FLAGS = new byte[STATE_COUNT];
+
+    static {
+        Arrays.fill(TRANSITIONS, NONE);
+        setTransition(HOUSE, OUTSIDE_HOUSE, RESUME);
+        setTransition(CHASE, SUPER_PAC_GUM_EATEN, FRIGHTENED);
+        setTransition(CHASE, MODE_TIMER_OVER, SCATTER);
+        setTransition(SCATTER, SUPER_PAC_GUM_EATEN, FRIGHTENED);
+        setTransition(SCATTER, MODE_TIMER_OVER, CHASE);
+        setTransition(FRIGHTENED, GHOST_EATEN, EATEN);
+        setTransition(FRIGHTENED, FRIGHTENED_TIMER_OVER, RESUME);
+        setTransition(EATEN, INSIDE_HOUSE, HOUSE);
+
+        FLAGS[CHASE] = MODE_TIMER;
+        FLAGS[SCATTER] = MODE_TIMER;
+        FLAGS[FRIGHTENED] = FRIGHTENED_TIMER | VULNERABLE;
+        FLAGS[EATEN] = HARMLESS;
+    }
+
+    private GhostStateMachine() {}
+
+    private static void setTransition(byte state, byte event, byte next) {
+        TRANSITIONS[state * EVENT_COUNT + event] = next;
+    }
+
+    //Prochain état après l'événement event dans l'état state (NONE : pas de transition, RESUME : poursuite ou dispersion)
+    public static byte getTransition(byte state, byte event) {
+        return TRANSITIONS[state * EVENT_COUNT + event];
+    }
+
+    public static boolean hasFlag(byte state, int flag) {
+        return (FLAGS[state] & flag) != 0;
+    }
+
+    public static String getStateName(byte state) {
+        return STATE_NAMES[state];
+    }
+}
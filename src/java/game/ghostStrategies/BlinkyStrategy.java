@@ -1,25 +1,27 @@
 package game.ghostStrategies;
 
-import game.Game;
-import game.GameplayPanel;
+import game.entities.Pacman;
+import game.entities.ghosts.Ghost;
 
 //Stratégie concrète de Blinky (le fantôme rouge)
 public class BlinkyStrategy implements IGhostStrategy{
+    private Ghost ghost;
+    public BlinkyStrategy(Ghost ghost) {
+        this.ghost = ghost;
+    }
+
     //Blinky cible directement la position de Pacman
     @Override
-    public int[] getChaseTargetPosition() {
-        int[] position = new int[2];
-        position[0] = Game.getPacman().getxPos();
-        position[1] = Game.getPacman().getyPos();
-        return position;
+    public void computeChaseTargetPosition(int[] position) {
+        Pacman pacman = ghost.getGame().getPacman();
+        position[0] = pacman.getxPos();
+        position[1] = pacman.getyPos();
     }
 
     //En pause, Blinky cible la case en haut à droite
     @Override
-    public int[] getScatterTargetPosition() {
-        int[] position = new int[2];
-        position[0] = GameplayPanel.width;
+    public void computeScatterTargetPosition(int[] position) {
+        position[0] = ghost.getGame().getWidth();
         position[1] = 0;
-        return position;
     }
 }
@@ -1,7 +1,6 @@
 package game.ghostStrategies;
 
-import game.Game;
-import game.GameplayPanel;
+import game.entities.Pacman;
 import game.entities.ghosts.Ghost;
 import game.utils.Utils;
 
@@ -14,23 +13,20 @@ public class ClydeStrategy implements IGhostStrategy{
 
     //Clyde cible directement Pacman s'il est au dela d'un rayon de 8 cases, et sinon il cible sa position de pause
     @Override
-    public int[] getChaseTargetPosition() {
-        if (Utils.getDistance(ghost.getxPos(), ghost.getyPos(), Game.getPacman().getxPos(), Game.getPacman().getyPos()) >= 256) {
-            int[] position = new int[2];
-            position[0] = Game.getPacman().getxPos();
-            position[1] = Game.getPacman().getyPos();
-            return position;
+    public void computeChaseTargetPosition(int[] position) {
+        Pacman pacman = ghost.getGame().getPacman();
+        if (Utils.getSquaredDistance(ghost.getxPos(), ghost.getyPos(), pacman.getxPos(), pacman.getyPos()) >= 256 * 256) {
+            position[0] = pacman.getxPos();
+            position[1] = pacman.getyPos();
         }else{
-            return getScatterTargetPosition();
+            computeScatterTargetPosition(position);
         }
     }
 
     //En pause, Clyde cible la case en bas à gauche
     @Override
-    public int[] getScatterTargetPosition() {
-        int[] position = new int[2];
+    public void computeScatterTargetPosition(int[] position) {
         position[0] = 0;
-        position[1] = GameplayPanel.height;
-        return position;
+        position[1] = ghost.getGame().getHeight();
     }
 }
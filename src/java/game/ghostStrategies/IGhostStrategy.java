@@ -1,7 +1,8 @@
 package game.ghostStrategies;
 
 //Interface pour décrire les stratégies des différents fantômes (cette vidéo les explique bien : https://www.youtube.com/watch?v=ataGotQ7ir8)
+//La case ciblée est écrite dans le tableau position fourni par le fantôme (position[0] : x, position[1] : y), pour ne pas allouer de tableau à chaque décision
 public interface IGhostStrategy {
-    int[] getChaseTargetPosition(); //Case ciblée lorsque le fantôme poursuit Pacman
-    int[] getScatterTargetPosition(); //Case ciblée lorsque le fantôme fait une pause
+    void computeChaseTargetPosition(int[] position); //Case ciblée lorsque le fantôme poursuit Pacman
+    void computeScatterTargetPosition(int[] position); //Case ciblée lorsque le fantôme fait une pause
 }
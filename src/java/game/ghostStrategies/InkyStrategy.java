@@ -1,36 +1,34 @@
 package game.ghostStrategies;
 
-import game.Game;
-import game.GameplayPanel;
+import game.entities.Pacman;
 import game.entities.ghosts.Ghost;
 import game.utils.Utils;
 
 //Stratégie concrète d'Inky (le fantôme bleu)
 public class InkyStrategy implements IGhostStrategy{
-    private Ghost otherGhost;
+    private Ghost ghost;
     public InkyStrategy(Ghost ghost) {
-        this.otherGhost = ghost;
+        this.ghost = ghost;
     }
 
     //Inky se base sur la position de Blinky pour cibler Pacman : on prend un vecteur entre la position de Blinky et une case devant Pacman, et additionne ce vecteur à la position une case devant Pacman pour obtenir la cible d'Inky
     @Override
-    public int[] getChaseTargetPosition() {
-        int[] position = new int[2];
-        int[] pacmanFacingPosition = Utils.getPointDistanceDirection(Game.getPacman().getxPos(), Game.getPacman().getyPos(), 32d, Utils.directionConverter(Game.getPacman().getDirection()));
-        double distanceOtherGhost = Utils.getDistance(pacmanFacingPosition[0], pacmanFacingPosition[1], otherGhost.getxPos(), otherGhost.getyPos());
-        double directionOtherGhost = Utils.getDirection(otherGhost.getxPos(), otherGhost.getyPos(), pacmanFacingPosition[0], pacmanFacingPosition[1]);
-        int[] blinkyVectorPosition = Utils.getPointDistanceDirection(pacmanFacingPosition[0], pacmanFacingPosition[1], distanceOtherGhost, directionOtherGhost);
-        position[0] = blinkyVectorPosition[0];
-        position[1] = blinkyVectorPosition[1];
-        return position;
+    public void computeChaseTargetPosition(int[] position) {
+        Pacman pacman = ghost.getGame().getPacman();
+        Ghost otherGhost = ghost.getGame().getBlinky();
+        //La case devant Pacman est d'abord écrite dans position, qui reçoit ensuite la cible finale
+        Utils.getPointDistanceDirection(pacman.getxPos(), pacman.getyPos(), 32d, Utils.directionConverter(pacman.getDirection()), position);
+        int pacmanFacingX = position[0];
+        int pacmanFacingY = position[1];
+        double distanceOtherGhost = Utils.getDistance(pacmanFacingX, pacmanFacingY, otherGhost.getxPos(), otherGhost.getyPos());
+        double directionOtherGhost = Utils.getDirection(otherGhost.getxPos(), otherGhost.getyPos(), pacmanFacingX, pacmanFacingY);
+        Utils.getPointDistanceDirection(pacmanFacingX, pacmanFacingY, distanceOtherGhost, directionOtherGhost, position);
     }
 
     //En pause, Inky cible la case en bas à droite
     @Override
-    public int[] getScatterTargetPosition() {
-        int[] position = new int[2];
-        position[0] = GameplayPanel.width;
-        position[1] = GameplayPanel.height;
-        return position;
+    public void computeScatterTargetPosition(int[] position) {
+        position[0] = ghost.getGame().getWidth();
+        position[1] = ghost.getGame().getHeight();
     }
 }
@@ -1,26 +1,27 @@
 package game.ghostStrategies;
 
-import game.Game;
+import game.entities.Pacman;
+import game.entities.ghosts.Ghost;
 import game.utils.Utils;
 
 //Stratégie concrète de Pinky (le fantôme rose)
 public class PinkyStrategy implements IGhostStrategy {
+    private Ghost ghost;
+    public PinkyStrategy(Ghost ghost) {
+        this.ghost = ghost;
+    }
+
     //Pinky cible deux cases devant de Pacman
     @Override
-    public int[] getChaseTargetPosition() {
-        int[] position = new int[2];
-        int[] pacmanFacingPosition = Utils.getPointDistanceDirection(Game.getPacman().getxPos(), Game.getPacman().getyPos(), 64, Utils.directionConverter(Game.getPacman().getDirection()));
-        position[0] = pacmanFacingPosition[0];
-        position[1] = pacmanFacingPosition[1];
-        return position;
+    public void computeChaseTargetPosition(int[] position) {
+        Pacman pacman = ghost.getGame().getPacman();
+        Utils.getPointDistanceDirection(pacman.getxPos(), pacman.getyPos(), 64, Utils.directionConverter(pacman.getDirection()), position);
     }
 
     //En pause, Pinky cible la case en haut à gauche
     @Override
-    public int[] getScatterTargetPosition() {
-        int[] position = new int[2];
+    public void computeScatterTargetPosition(int[] position) {
         position[0] = 0;
         position[1] = 0;
-        return position;
     }
 }
@@ -0,0 +1,74 @@
+package game.managers;
+
+import game.entities.MovingEntity;
+
+//Niveau de difficulté (objet immuable) : score à atteindre, multiplicateur de la vitesse des fantômes et description
+//Les valeurs utilisées à chaque tick sont calculées une fois pour toutes à la création, pour que la boucle de jeu n'ait aucun calcul en virgule flottante à faire
+public final class DifficultyLevel {
+    //Valeurs de référence (multiplicateur 1.0, 60 ticks par seconde)
+    private static final int BASE_FRIGHTENED_TICKS = 60 * 7;
+    private static final int BASE_SCATTER_TICKS = 60 * 5;
+    private static final int BASE_CHASE_TICKS = 60 * 20;
+
+    private final int level;
+    private final int scoreThreshold;
+    private final double ghostSpeedMultiplier;
+    private final String description;
+
+    private final int ghostSpeedMultiplierFixed;
+    private final int frightenedTicks;
+    private final int scatterTicks;
+
+    public DifficultyLevel(int level, int scoreThreshold, double ghostSpeedMultiplier, String description) {
+        this.level = level;
+        this.scoreThreshold = scoreThreshold;
+        this.ghostSpeedMultiplier = ghostSpeedMultiplier;
+        this.description = description;
+
+        //Plus les fantômes sont rapides, plus les modes effrayé et dispersion sont courts
+        this.ghostSpeedMultiplierFixed = (int) Math.round(ghostSpeedMultiplier * MovingEntity.FIXED_ONE);
+        this.frightenedTicks = (int) Math.round(BASE_FRIGHTENED_TICKS / ghostSpeedMultiplier);
+        this.scatterTicks = (int) Math.round(BASE_SCATTER_TICKS / ghostSpeedMultiplier);
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    //Score minimal pour atteindre ce niveau
+    public int getScoreThreshold() {
+        return scoreThreshold;
+    }
+
+    public double getGhostSpeedMultiplier() {
+        return ghostSpeedMultiplier;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    //Multiplicateur en virgule fixe 16.16 : multiplié par la vitesse d'un fantôme (en pixels par tick), il donne son déplacement par tick en virgule fixe
+    public int getGhostSpeedMultiplierFixed() {
+        return ghostSpeedMultiplierFixed;
+    }
+
+    //Durées des modes, en ticks
+    public int getFrightenedTicks() {
+        return frightenedTicks;
+    }
+
+    public int getScatterTicks() {
+        return scatterTicks;
+    }
+
+    //La durée de la poursuite ne dépend pas du niveau
+    public int getChaseTicks() {
+        return BASE_CHASE_TICKS;
+    }
+
+    @Override
+    public String toString() {
+        return "Level " + level + " (" + description + ")";
+    }
+}
@@ -0,0 +1,100 @@
+package game.managers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+//Gestion de la difficulté en fonction du score (singleton)
+//Le niveau d'un score est cherché par dichotomie dans le tableau des seuils, construit une seule fois : on peut le demander à chaque changement de score
+//L'instance unique garde le niveau affiché ; chaque partie (Game) garde le sien via getLevelForScore, pour pouvoir simuler plusieurs parties en même temps
+public class DifficultyManager {
+    private static final int SCORE_PER_LEVEL = 1000;
+
+    //Niveaux, par seuil croissant
+    private static final DifficultyLevel[] LEVELS = {
+            new DifficultyLevel(1, 0, 1.0, "Tutorial"),
+            new DifficultyLevel(2, SCORE_PER_LEVEL, 1.1, "Beginner"),
+            new DifficultyLevel(3, SCORE_PER_LEVEL * 2, 1.2, "Intermediate"),
+            new DifficultyLevel(4, SCORE_PER_LEVEL * 3, 1.3, "Advanced"),
+            new DifficultyLevel(5, SCORE_PER_LEVEL * 4, 1.5, "Expert"),
+            new DifficultyLevel(6, SCORE_PER_LEVEL * 5, 1.7, "Master")
+    };
+    private static final List<DifficultyLevel> ALL_LEVELS = Collections.unmodifiableList(Arrays.asList(LEVELS));
+
+    //Seuils des niveaux (dans l'ordre de LEVELS), pour la dichotomie
+    private static final int[] THRESHOLDS = new int[LEVELS.length];
+
+    static {
+        for (int i = 0; i < LEVELS.length; i++) {
+            THRESHOLDS[i] = LEVELS[i].getScoreThreshold();
+        }
+    }
+
+    private static DifficultyManager instance;
+
+    private volatile DifficultyLevel currentLevel = LEVELS[0];
+
+    private DifficultyManager() {}
+
+    public static synchronized DifficultyManager getInstance() {
+        if (instance == null) {
+            instance = new DifficultyManager();
+        }
+        return instance;
+    }
+
+    //Score à gagner pour passer au niveau suivant
+    public static int getScorePerLevel() {
+        return SCORE_PER_LEVEL;
+    }
+
+    //Niveau du seuil le plus élevé atteint par le score (le premier niveau pour un score négatif)
+    public static DifficultyLevel getLevelForScore(int score) {
+        int i = Arrays.binarySearch(THRESHOLDS, score);
+        if (i < 0) {
+            i = -i - 2; //Niveau qui précède la position d'insertion
+        }
+        return LEVELS[Math.max(i, 0)];
+    }
+
+    //Mise à jour du niveau courant, et renvoie true s'il a changé
+    public boolean updateLevel(int score) {
+        DifficultyLevel level = getLevelForScore(score);
+        if (level == currentLevel) {
+            return false;
+        }
+        currentLevel = level;
+        return true;
+    }
+
+    //Score restant avant le niveau suivant (0 au dernier niveau)
+    public int getScoreToNextLevel(int score) {
+        int next = getLevelForScore(score).getLevel(); //Le numéro d'un niveau est l'indice du suivant
+        if (next >= LEVELS.length) {
+            return 0;
+        }
+        return THRESHOLDS[next] - score;
+    }
+
+    //Retour au premier niveau
+    public void reset() {
+        currentLevel = LEVELS[0];
+    }
+
+    public DifficultyLevel getCurrentLevel() {
+        return currentLevel;
+    }
+
+    public int getCurrentLevelNumber() {
+        return currentLevel.getLevel();
+    }
+
+    public double getGhostSpeedMultiplier() {
+        return currentLevel.getGhostSpeedMultiplier();
+    }
+
+    //Tous les niveaux (liste en lecture seule)
+    public List<DifficultyLevel> getAllLevels() {
+        return ALL_LEVELS;
+    }
+}
@@ -0,0 +1,109 @@
+package game.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//Histogramme de valeurs entières positives (durées en nanosecondes, nombres d'octets...) à la manière d'HdrHistogram
+//Les valeurs sont rangées dans des seaux dont la largeur double à chaque puissance de 2 : chaque puissance de 2 est découpée en SUB_BUCKET_COUNT seaux égaux,
+//la précision relative est donc constante (environ 3%) quelle que soit l'ordre de grandeur, pour une mémoire fixe et un enregistrement en temps constant
+//L'enregistrement peut se faire depuis plusieurs threads, et la lecture pendant l'enregistrement (les valeurs lues sont alors approximatives)
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_SHIFT = 40 - SUB_BUCKET_BITS; //Les valeurs au delà de 2^40 (environ 18 minutes en nanosecondes) sont rangées dans le dernier seau
+
+    private final String name;
+    private final String unit;
+    private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKET_COUNT * (MAX_SHIFT + 2));
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    public Histogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(value);
+        maxValue.accumulateAndGet(value, Math::max);
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalValue.set(0);
+        maxValue.set(0);
+    }
+
+    //Valeur sous laquelle se trouvent percentile % des valeurs enregistrées (borne haute du seau correspondant)
+    public long getValueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= rank) return Math.min(bucketUpperBound(i), getMax());
+        }
+        return getMax();
+    }
+
+    public double getMean() {
+        long total = totalCount.get();
+        return total == 0 ? 0 : (double) totalValue.get() / total;
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public int getBucketCount() {
+        return counts.length();
+    }
+
+    public long getBucketCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    //Plus petite valeur rangée dans un seau
+    public static long bucketLowerBound(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) return bucket;
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        int subBucket = bucket % SUB_BUCKET_COUNT;
+        return (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+    }
+
+    //Plus grande valeur rangée dans un seau
+    public static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) return bucket;
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        return bucketLowerBound(bucket) + (1L << shift) - 1;
+    }
+
+    //Les SUB_BUCKET_COUNT premières valeurs ont chacune leur seau, puis pour chaque puissance de 2 suivante, SUB_BUCKET_COUNT seaux de largeur 2^shift
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        if (shift > MAX_SHIFT) return SUB_BUCKET_COUNT * (MAX_SHIFT + 2) - 1;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT * (shift + 1) + subBucket;
+    }
+}
@@ -0,0 +1,156 @@
+package game.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+//Statistiques de performance d'une partie : durée de chaque phase d'une frame (inputs, mise à jour, rendu, affichage), nombre de tests de collision et d'octets alloués par tick, et FPS
+//Chaque phase est enregistrée par le thread qui l'exécute (thread du jeu, thread de rendu, thread de Swing) ; les valeurs peuvent être lues à tout moment (incrustation, export en fin de partie)
+public class PerformanceMonitor {
+    public static final int INPUT = 0;
+    public static final int UPDATE = 1;
+    public static final int RENDER = 2;
+    public static final int BLIT = 3;
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Histogram[] phases = {
+            new Histogram("input", "ns"),
+            new Histogram("update", "ns"),
+            new Histogram("render", "ns"),
+            new Histogram("blit", "ns")
+    };
+    private final Histogram collisionProbes = new Histogram("collision_probes", "probes/tick");
+    private final Histogram allocatedBytes = new Histogram("allocated_bytes", "bytes/tick");
+    private volatile int fps;
+
+    //Mesure des allocations du thread courant, si la JVM le permet (HotSpot) ; sinon l'histogramme des allocations reste vide
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    public PerformanceMonitor() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threadBean = (com.sun.management.ThreadMXBean) bean;
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            threadBean = null;
+        }
+    }
+
+    //Durée d'une phase (INPUT, UPDATE, RENDER ou BLIT), mesurée avec System.nanoTime
+    public void recordPhase(int phase, long nanos) {
+        phases[phase].record(nanos);
+    }
+
+    public void recordCollisionProbes(long probes) {
+        collisionProbes.record(probes);
+    }
+
+    public void recordAllocatedBytes(long bytes) {
+        allocatedBytes.record(bytes);
+    }
+
+    //Nombre total d'octets alloués par le thread courant (-1 si la mesure n'est pas disponible)
+    public long getCurrentThreadAllocatedBytes() {
+        return threadBean == null ? -1 : threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public Histogram getPhase(int phase) {
+        return phases[phase];
+    }
+
+    public Histogram getCollisionProbes() {
+        return collisionProbes;
+    }
+
+    public Histogram getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public int getFps() {
+        return fps;
+    }
+
+    public void setFps(int fps) {
+        this.fps = fps;
+    }
+
+    public void reset() {
+        for (Histogram h : phases) {
+            h.reset();
+        }
+        collisionProbes.reset();
+        allocatedBytes.reset();
+    }
+
+    //Résumé sur une ligne par mesure, pour l'incrustation dans l'interface (durées en microsecondes)
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("FPS ").append(fps);
+        for (Histogram h : phases) {
+            sb.append(String.format(Locale.ROOT, "%n%-6s p50 %5.1f p99 %6.1f max %6.0f us", h.getName(),
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0, h.getMax() / 1000.0));
+        }
+        sb.append(String.format(Locale.ROOT, "%nprobes p50 %5d max %6d /tick", collisionProbes.getValueAtPercentile(50), collisionProbes.getMax()));
+        if (threadBean != null) {
+            sb.append(String.format(Locale.ROOT, "%nalloc  p50 %5d max %6d B/tick", allocatedBytes.getValueAtPercentile(50), allocatedBytes.getMax()));
+        }
+        return sb.toString();
+    }
+
+    //Export de toutes les mesures : en JSON (résumé et seaux non vides) si le nom du fichier se termine par .json, en CSV (un seau non vide par ligne) sinon
+    public void export(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")) {
+                exportJson(out);
+            } else {
+                exportCsv(out);
+            }
+        }
+    }
+
+    private Histogram[] getHistograms() {
+        return new Histogram[]{phases[INPUT], phases[UPDATE], phases[RENDER], phases[BLIT], collisionProbes, allocatedBytes};
+    }
+
+    private void exportCsv(PrintWriter out) {
+        out.println("metric,unit,lower,upper,count");
+        for (Histogram h : getHistograms()) {
+            for (int i = 0; i < h.getBucketCount(); i++) {
+                long count = h.getBucketCount(i);
+                if (count == 0) continue;
+                out.println(h.getName() + "," + h.getUnit() + "," + Histogram.bucketLowerBound(i) + "," + Histogram.bucketUpperBound(i) + "," + count);
+            }
+        }
+    }
+
+    private void exportJson(PrintWriter out) {
+        out.println("{");
+        out.println("  \"fps\": " + fps + ",");
+        out.println("  \"metrics\": [");
+        Histogram[] histograms = getHistograms();
+        for (int k = 0; k < histograms.length; k++) {
+            Histogram h = histograms[k];
+            out.print("    {\"name\": \"" + h.getName() + "\", \"unit\": \"" + h.getUnit() + "\", \"count\": " + h.getCount());
+            out.print(String.format(Locale.ROOT, ", \"mean\": %.1f, \"max\": %d", h.getMean(), h.getMax()));
+            for (double p : PERCENTILES) {
+                out.print(String.format(Locale.ROOT, ", \"p%s\": %d", Double.toString(p).replace(".0", "").replace('.', '_'), h.getValueAtPercentile(p)));
+            }
+            out.print(", \"buckets\": [");
+            boolean first = true;
+            for (int i = 0; i < h.getBucketCount(); i++) {
+                long count = h.getBucketCount(i);
+                if (count == 0) continue;
+                out.print((first ? "" : ", ") + "[" + Histogram.bucketLowerBound(i) + ", " + Histogram.bucketUpperBound(i) + ", " + count + "]");
+                first = false;
+            }
+            out.println("]}" + (k < histograms.length - 1 ? "," : ""));
+        }
+        out.println("  ]");
+        out.println("}");
+    }
+}
@@ -0,0 +1,89 @@
+package game.simulation;
+
+import game.Game;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+//Exécution d'un grand nombre de parties indépendantes en parallèle (une Simulation par partie, réparties sur un ForkJoinPool)
+//Les parties ne partagent aucun état mutable, le débit augmente donc avec le nombre de coeurs
+public class BatchRunner {
+    private final int parallelism;
+    private final int maxTicks;
+
+    //maxTicks : nombre maximal de ticks par partie (une partie qui n'est pas perdue avant est arrêtée)
+    public BatchRunner(int parallelism, int maxTicks) {
+        this.parallelism = parallelism;
+        this.maxTicks = maxTicks;
+    }
+
+    public BatchRunner(int maxTicks) {
+        this(Runtime.getRuntime().availableProcessors(), maxTicks);
+    }
+
+    //Joue une partie jusqu'à sa fin ou jusqu'à maxTicks
+    public GameResult play(GameSpec spec) {
+        Simulation simulation = new Simulation(spec.getLevel());
+        simulation.getGame().setSeed(spec.getSeed()); //La graine de la partie décide aussi des déplacements des fantômes effrayés
+        simulation.setInputPolicy(spec.createInputPolicy());
+        simulation.run(maxTicks);
+        return GameResult.of(spec.getSeed(), simulation);
+    }
+
+    //Joue toutes les parties et renvoie leurs résultats, dans l'ordre des specs
+    public List<GameResult> runAll(List<GameSpec> specs) {
+        List<Callable<GameResult>> tasks = new ArrayList<>(specs.size());
+        for (GameSpec spec : specs) {
+            tasks.add(() -> play(spec));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<GameResult> results = new ArrayList<>(specs.size());
+            for (Future<GameResult> f : pool.invokeAll(tasks)) {
+                results.add(f.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Exécution du lot interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Une partie du lot a échoué", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    //Joue toutes les parties et renvoie les statistiques agrégées
+    public BatchStatistics run(List<GameSpec> specs) {
+        long start = System.nanoTime();
+        List<GameResult> results = runAll(specs);
+        return new BatchStatistics(results, System.nanoTime() - start);
+    }
+
+    //Lot de parties sur un même niveau avec des politiques aléatoires, de graines firstSeed, firstSeed + 1...
+    public static List<GameSpec> randomGames(URI level, long firstSeed, int count) {
+        List<GameSpec> specs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            specs.add(new GameSpec(firstSeed + i, level, RandomInputPolicy::new));
+        }
+        return specs;
+    }
+
+    //Utilisation : BatchRunner [nombre de parties] [ticks max par partie] [threads] [fichier csv du niveau]
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int maxTicks = args.length > 1 ? Integer.parseInt(args[1]) : 60 * 60 * 5;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        URI level = args.length > 3 ? Paths.get(args[3]).toUri() : Game.getDefaultLevel();
+
+        BatchStatistics statistics = new BatchRunner(threads, maxTicks).run(randomGames(level, 0, games));
+        System.out.println(statistics);
+    }
+}
@@ -0,0 +1,137 @@
+package game.simulation;
+
+import game.ghostStates.GhostStateMachine;
+
+import java.util.Arrays;
+import java.util.List;
+
+//Statistiques agrégées sur un lot de parties : distribution des scores, nombre de ticks avant la mort, PacGums mangées et répartition des états des fantômes
+public class BatchStatistics {
+    private final int games;
+    private final int deaths;
+    private final long totalTicks;
+    private final long elapsedNanos;
+
+    private final int[] sortedScores;
+    private final int[] sortedTicksToDeath;
+    private final int[] sortedPelletsEaten;
+
+    private final long[] ghostStateTicks = new long[GhostStateMachine.STATE_COUNT];
+    private long totalGhostTicks;
+
+    public BatchStatistics(List<GameResult> results, long elapsedNanos) {
+        this.games = results.size();
+        this.elapsedNanos = elapsedNanos;
+
+        sortedScores = new int[games];
+        sortedPelletsEaten = new int[games];
+        int[] ticksToDeath = new int[games];
+        int d = 0;
+        long ticks = 0;
+        for (int i = 0; i < games; i++) {
+            GameResult r = results.get(i);
+            sortedScores[i] = r.getScore();
+            sortedPelletsEaten[i] = r.getPelletsEaten();
+            ticks += r.getTicks();
+            for (byte s = 0; s < GhostStateMachine.STATE_COUNT; s++) {
+                ghostStateTicks[s] += r.getGhostStateTicks(s);
+                totalGhostTicks += r.getGhostStateTicks(s);
+            }
+            if (r.hasDied()) {
+                ticksToDeath[d++] = r.getTicks();
+            }
+        }
+        this.deaths = d;
+        this.totalTicks = ticks;
+        this.sortedTicksToDeath = Arrays.copyOf(ticksToDeath, d);
+        Arrays.sort(sortedScores);
+        Arrays.sort(sortedPelletsEaten);
+        Arrays.sort(sortedTicksToDeath);
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getDeaths() {
+        return deaths;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public double getScoreMean() {
+        return mean(sortedScores);
+    }
+
+    //Percentile du score (p entre 0 et 100)
+    public int getScorePercentile(double p) {
+        return percentile(sortedScores, p);
+    }
+
+    public int getScoreMin() {
+        return percentile(sortedScores, 0);
+    }
+
+    public int getScoreMax() {
+        return percentile(sortedScores, 100);
+    }
+
+    //Les statistiques de ticks avant la mort ne portent que sur les parties perdues
+    public double getTicksToDeathMean() {
+        return mean(sortedTicksToDeath);
+    }
+
+    public int getTicksToDeathPercentile(double p) {
+        return percentile(sortedTicksToDeath, p);
+    }
+
+    public double getPelletsEatenMean() {
+        return mean(sortedPelletsEaten);
+    }
+
+    public int getPelletsEatenPercentile(double p) {
+        return percentile(sortedPelletsEaten, p);
+    }
+
+    //Part des ticks passés par les fantômes dans l'état state (entre 0 et 1)
+    public double getGhostStateShare(byte state) {
+        return totalGhostTicks == 0 ? 0 : (double) ghostStateTicks[state] / totalGhostTicks;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    public double getTicksPerSecond() {
+        return elapsedNanos == 0 ? 0 : totalTicks * 1e9 / elapsedNanos;
+    }
+
+    private static double mean(int[] values) {
+        if (values.length == 0) return 0;
+        long sum = 0;
+        for (int v : values) sum += v;
+        return (double) sum / values.length;
+    }
+
+    //Percentile par la méthode du rang le plus proche, sur un tableau déjà trié
+    private static int percentile(int[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.min(Math.max(rank - 1, 0), sorted.length - 1)];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder states = new StringBuilder("États des fantômes :");
+        for (byte s = 0; s < GhostStateMachine.STATE_COUNT; s++) {
+            states.append(String.format("%s %s %.1f %%", s == 0 ? "" : ",", GhostStateMachine.getStateName(s), getGhostStateShare(s) * 100));
+        }
+        return String.format("%d parties (%d perdues) en %.2f s : %.0f parties/s, %.0f ticks/s%n", games, deaths, elapsedNanos / 1e9, getGamesPerSecond(), getTicksPerSecond())
+                + String.format("Score : min %d, moyenne %.1f, p50 %d, p90 %d, p99 %d, max %d%n", getScoreMin(), getScoreMean(), getScorePercentile(50), getScorePercentile(90), getScorePercentile(99), getScoreMax())
+                + String.format("Ticks avant la mort : moyenne %.1f, p10 %d, p50 %d, p90 %d%n", getTicksToDeathMean(), getTicksToDeathPercentile(10), getTicksToDeathPercentile(50), getTicksToDeathPercentile(90))
+                + String.format("PacGums mangées : moyenne %.1f, p50 %d, max %d", getPelletsEatenMean(), getPelletsEatenPercentile(50), getPelletsEatenPercentile(100))
+                + String.format("%n") + states;
+    }
+}
@@ -0,0 +1,85 @@
+package game.simulation;
+
+//Résultat d'une partie jouée par le BatchRunner
+public class GameResult {
+    private final long seed;
+    private final int score;
+    private final int ticks;
+    private final boolean died;
+    private final int pacGumsEaten;
+    private final int superPacGumsEaten;
+    private final int ghostsEaten;
+    private final long[] ghostStateTicks; //Nombre de ticks passés par les fantômes dans chaque état (indice : numéro d'état de GhostStateMachine)
+
+    public GameResult(long seed, int score, int ticks, boolean died, int pacGumsEaten, int superPacGumsEaten, int ghostsEaten, long[] ghostStateTicks) {
+        this.seed = seed;
+        this.score = score;
+        this.ticks = ticks;
+        this.died = died;
+        this.pacGumsEaten = pacGumsEaten;
+        this.superPacGumsEaten = superPacGumsEaten;
+        this.ghostsEaten = ghostsEaten;
+        this.ghostStateTicks = ghostStateTicks;
+    }
+
+    //Bilan d'une simulation terminée (ou arrêtée faute de ticks)
+    public static GameResult of(long seed, Simulation simulation) {
+        int pacGums = 0;
+        int superPacGums = 0;
+        int ghosts = 0;
+        for (SimulationEvent e : simulation.getEvents()) {
+            switch (e.getType()) {
+                case PAC_GUM_EATEN:
+                    pacGums++;
+                    break;
+                case SUPER_PAC_GUM_EATEN:
+                    superPacGums++;
+                    break;
+                case GHOST_EATEN:
+                    ghosts++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new GameResult(seed, simulation.getScore(), simulation.getTick(), simulation.isGameOver(), pacGums, superPacGums, ghosts, simulation.getGame().getGhostStateTicks());
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    //Nombre de ticks joués (c'est le nombre de ticks avant la mort si died est vrai)
+    public int getTicks() {
+        return ticks;
+    }
+
+    public boolean hasDied() {
+        return died;
+    }
+
+    public int getPacGumsEaten() {
+        return pacGumsEaten;
+    }
+
+    public int getSuperPacGumsEaten() {
+        return superPacGumsEaten;
+    }
+
+    public int getPelletsEaten() {
+        return pacGumsEaten + superPacGumsEaten;
+    }
+
+    public int getGhostsEaten() {
+        return ghostsEaten;
+    }
+
+    //Nombre de ticks passés par les fantômes dans l'état state, tous fantômes confondus
+    public long getGhostStateTicks(byte state) {
+        return ghostStateTicks[state];
+    }
+}
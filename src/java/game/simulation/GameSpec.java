@@ -0,0 +1,30 @@
+package game.simulation;
+
+import java.net.URI;
+import java.util.function.LongFunction;
+
+//Description d'une partie à jouer par le BatchRunner : une graine, un niveau et une politique d'entrée
+//La politique est créée à partir de la graine au moment de jouer la partie, chaque partie a donc sa propre instance
+public class GameSpec {
+    private final long seed;
+    private final URI level;
+    private final LongFunction<InputPolicy> inputPolicyFactory;
+
+    public GameSpec(long seed, URI level, LongFunction<InputPolicy> inputPolicyFactory) {
+        this.seed = seed;
+        this.level = level;
+        this.inputPolicyFactory = inputPolicyFactory;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public URI getLevel() {
+        return level;
+    }
+
+    public InputPolicy createInputPolicy() {
+        return inputPolicyFactory.apply(seed);
+    }
+}
@@ -0,0 +1,8 @@
+package game.simulation;
+
+import game.Game;
+
+//Interface pour décrire qui "joue" pendant une simulation : à chaque tick, la politique renvoie les touches appuyées (masques de KeyHandler)
+public interface InputPolicy {
+    int getInputBits(int tick, Game game);
+}
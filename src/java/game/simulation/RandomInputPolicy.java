@@ -0,0 +1,32 @@
+package game.simulation;
+
+import game.Game;
+import game.utils.KeyHandler;
+
+import java.util.SplittableRandom;
+
+//Politique d'entrée aléatoire (mais reproductible grâce à la graine) : une direction au hasard, maintenue pendant un nombre de ticks donné
+public class RandomInputPolicy implements InputPolicy {
+    private static final int[] DIRECTIONS = {KeyHandler.UP, KeyHandler.DOWN, KeyHandler.LEFT, KeyHandler.RIGHT};
+
+    private final SplittableRandom random;
+    private final int ticksPerDirection;
+    private int current = 0;
+
+    public RandomInputPolicy(long seed, int ticksPerDirection) {
+        this.random = new SplittableRandom(seed);
+        this.ticksPerDirection = ticksPerDirection;
+    }
+
+    public RandomInputPolicy(long seed) {
+        this(seed, 30);
+    }
+
+    @Override
+    public int getInputBits(int tick, Game game) {
+        if (tick % ticksPerDirection == 0) {
+            current = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+        }
+        return current;
+    }
+}
@@ -0,0 +1,153 @@
+package game.simulation;
+
+import game.Game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+//Enregistrement d'une partie : la graine du générateur aléatoire de la partie et les touches appuyées à chaque tick
+//Le jeu n'ayant pas d'autre source de hasard, rejouer ces touches avec la même graine sur le même niveau redonne exactement la même partie (sans fenêtre, aussi vite que possible)
+//Format binaire : "PMRP", version (1 octet), graine (8 octets), nombre de ticks (4 octets), puis des séries de ticks identiques : touches (1 octet) et longueur de la série (entier de taille variable, 7 bits par octet)
+public class Replay implements InputPolicy {
+    private static final int MAGIC = 0x504D5250; //"PMRP"
+    private static final int VERSION = 2; //Version 2 : tirages aléatoires des fantômes effrayés corrigés (Utils.randomBool, Utils.randomInt), les parties de la version 1 ne se rejouent plus à l'identique
+    private static final int MAX_TICKS = 60 * 60 * 60 * 24; //24 heures de jeu à 60Hz : au delà, le fichier est considéré comme invalide
+
+    private final long seed;
+    private byte[] inputs = new byte[1024];
+    private int tickCount = 0;
+
+    public Replay(long seed) {
+        this.seed = seed;
+    }
+
+    //Ajout des touches du tick suivant (masques de KeyHandler)
+    //L'enregistrement peut être sauvegardé par un autre thread pendant la partie (à la fermeture de la fenêtre) : ajout et écriture sont donc synchronisés
+    public synchronized void record(int inputBits) {
+        if (tickCount == inputs.length) {
+            inputs = Arrays.copyOf(inputs, tickCount * 2);
+        }
+        inputs[tickCount++] = (byte) inputBits;
+    }
+
+    //Après le dernier tick enregistré, plus aucune touche n'est appuyée
+    @Override
+    public int getInputBits(int tick, Game game) {
+        return tick < tickCount ? inputs[tick] : 0;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    //Rejoue la partie enregistrée sur un jeu qui vient d'être créé (avec le même niveau), et renvoie la simulation une fois tous les ticks joués
+    public Simulation play(Game game) {
+        game.setSeed(seed);
+        Simulation simulation = new Simulation(game);
+        simulation.setInputPolicy(this);
+        simulation.run(tickCount);
+        return simulation;
+    }
+
+    public synchronized void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(seed);
+        data.writeInt(tickCount);
+        int i = 0;
+        while (i < tickCount) {
+            int start = i;
+            while (i < tickCount && inputs[i] == inputs[start]) i++;
+            data.writeByte(inputs[start]);
+            writeVarInt(data, i - start);
+        }
+        data.flush();
+    }
+
+    public static Replay read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) throw new IOException("Ce fichier n'est pas un enregistrement de partie");
+        int version = data.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Version d'enregistrement non gérée : " + version);
+        Replay replay = new Replay(data.readLong());
+        int tickCount = data.readInt();
+        if (tickCount < 0 || tickCount > MAX_TICKS) throw new IOException("Nombre de ticks invalide : " + tickCount);
+        //Le tableau des touches grandit au fur et à mesure des séries lues (comme avec record), sans se fier au nombre de ticks annoncé par l'en-tête
+        while (replay.tickCount < tickCount) {
+            byte inputBits = data.readByte();
+            int length = readVarInt(data);
+            if (length <= 0 || length > tickCount - replay.tickCount) throw new IOException("Série de ticks invalide : " + length);
+            if (replay.tickCount + length > replay.inputs.length) {
+                replay.inputs = Arrays.copyOf(replay.inputs, Math.max(replay.tickCount + length, replay.inputs.length * 2));
+            }
+            Arrays.fill(replay.inputs, replay.tickCount, replay.tickCount + length, inputBits);
+            replay.tickCount += length;
+        }
+        return replay;
+    }
+
+    public void save(Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(out);
+        }
+    }
+
+    public static Replay load(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Entier de taille variable trop long");
+    }
+
+    //Utilisation : Replay <fichier d'enregistrement> [nombre de rejeux] [fichier csv du niveau]
+    //Chaque rejeu refait exactement la même partie : utile pour reproduire un bug, ou pour profiler toujours le même travail
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Utilisation : Replay <fichier d'enregistrement> [nombre de rejeux] [fichier csv du niveau]");
+            return;
+        }
+        Replay replay = load(Paths.get(args[0]));
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        URI level = args.length > 2 ? Paths.get(args[2]).toUri() : null;
+
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            Simulation simulation = replay.play(level != null ? new Game(level) : new Game());
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Rejeu %d : %d ticks, score %d, %s, %.3f s (%.0f ticks/s)%n", run + 1, simulation.getTick(), simulation.getScore(),
+                    simulation.isGameOver() ? "game over" : simulation.isLevelCleared() ? "niveau terminé" : "en cours", seconds, simulation.getTick() / seconds);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package game.simulation;
+
+import game.Game;
+
+import java.util.Arrays;
+
+//Politique d'entrée scriptée : une suite de changements de touches à des ticks donnés, chaque état étant maintenu jusqu'au changement suivant
+public class ScriptedInput implements InputPolicy {
+    private int[] ticks = new int[8];
+    private int[] inputs = new int[8];
+    private int size = 0;
+
+    //Ajout d'un changement de touches au tick donné (les ticks doivent être croissants)
+    public ScriptedInput at(int tick, int inputBits) {
+        if (size > 0 && tick < ticks[size - 1]) {
+            throw new IllegalArgumentException("Les ticks doivent être croissants : " + tick + " < " + ticks[size - 1]);
+        }
+        if (size == ticks.length) {
+            ticks = Arrays.copyOf(ticks, size * 2);
+            inputs = Arrays.copyOf(inputs, size * 2);
+        }
+        ticks[size] = tick;
+        inputs[size] = inputBits;
+        size++;
+        return this;
+    }
+
+    @Override
+    public int getInputBits(int tick, Game game) {
+        //Dernier changement dont le tick est inférieur ou égal au tick courant
+        int i = Arrays.binarySearch(ticks, 0, size, tick);
+        if (i < 0) i = -i - 2;
+        else while (i + 1 < size && ticks[i + 1] == tick) i++;
+        return i < 0 ? 0 : inputs[i];
+    }
+}
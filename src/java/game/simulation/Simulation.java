@@ -0,0 +1,126 @@
+package game.simulation;
+
+import game.Game;
+import game.events.GameEvent;
+import game.events.GameEventListener;
+import game.utils.KeyHandler;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+//Simulation du jeu sans fenêtre : on fait avancer la partie tick par tick, aussi vite que possible (tests, traitements par lots, entraînement d'IA...)
+//Un tick correspond à une mise à jour du jeu (1/60e de seconde dans la version avec fenêtre)
+public class Simulation implements GameEventListener {
+    private final Game game;
+    private final KeyHandler keys = new KeyHandler();
+    private InputPolicy inputPolicy;
+    private Replay recording;
+
+    private int tick = 0;
+    private final List<SimulationEvent> events = new ArrayList<>();
+
+    //Simulation sur le niveau par défaut
+    public Simulation() {
+        this(new Game());
+    }
+
+    //Simulation sur un fichier csv de niveau
+    public Simulation(URI levelFile) {
+        this(new Game(levelFile));
+    }
+
+    public Simulation(Game game) {
+        this.game = game;
+        game.getEvents().subscribe(this);
+    }
+
+    //Sans politique d'entrée, les touches sont pilotées directement via getKeys()
+    public void setInputPolicy(InputPolicy inputPolicy) {
+        this.inputPolicy = inputPolicy;
+    }
+
+    //Enregistrement des ticks suivants (avec la graine de la partie) ; à démarrer avant le premier tick pour pouvoir rejouer la partie
+    public Replay startRecording() {
+        recording = new Replay(game.getSeed());
+        return recording;
+    }
+
+    //Avance d'un tick (inputs puis mise à jour), et renvoie false si la partie était déjà terminée
+    public boolean step() {
+        if (game.isFinished()) return false;
+
+        if (inputPolicy != null) {
+            keys.setInputBits(inputPolicy.getInputBits(tick, game));
+        }
+        if (recording != null) {
+            recording.record(keys.getInputBits());
+        }
+        game.input(keys);
+        game.update();
+        game.getEvents().drain(); //Sans fenêtre, le bus d'événements est vidé après chaque tick
+        tick++;
+        return true;
+    }
+
+    //Avance de n ticks au plus (on s'arrête si la partie se termine), et renvoie le nombre de ticks effectués
+    public int run(int ticks) {
+        int done = 0;
+        while (done < ticks && step()) {
+            done++;
+        }
+        return done;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public KeyHandler getKeys() {
+        return keys;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getScore() {
+        return game.getScore();
+    }
+
+    public int getLives() {
+        return game.getLives();
+    }
+
+    public boolean isGameOver() {
+        return game.isGameOver();
+    }
+
+    public boolean isLevelCleared() {
+        return game.isLevelCleared();
+    }
+
+    public List<SimulationEvent> getEvents() {
+        return Collections.unmodifiableList(events);
+    }
+
+    //Le bus est vidé à la fin de chaque step : les événements reçus sont donc ceux du tick en cours
+    @Override
+    public void onEvent(byte type, long eventTick, int x, int y) {
+        switch (type) {
+            case GameEvent.PELLET_EATEN:
+                events.add(new SimulationEvent(SimulationEvent.Type.PAC_GUM_EATEN, tick));
+                break;
+            case GameEvent.SUPER_EATEN:
+                events.add(new SimulationEvent(SimulationEvent.Type.SUPER_PAC_GUM_EATEN, tick));
+                break;
+            case GameEvent.GHOST_EATEN:
+                events.add(new SimulationEvent(SimulationEvent.Type.GHOST_EATEN, tick));
+                break;
+            case GameEvent.DEATH:
+                events.add(new SimulationEvent(SimulationEvent.Type.DEATH, tick));
+                break;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package game.simulation;
+
+//Événement survenu pendant une simulation, daté par le numéro du tick
+public class SimulationEvent {
+    public enum Type {
+        PAC_GUM_EATEN,
+        SUPER_PAC_GUM_EATEN,
+        GHOST_EATEN,
+        DEATH
+    }
+
+    private final Type type;
+    private final int tick;
+
+    public SimulationEvent(Type type, int tick) {
+        this.type = type;
+        this.tick = tick;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    @Override
+    public String toString() {
+        return tick + ":" + type;
+    }
+}
@@ -2,29 +2,114 @@ package game.utils;
 
 import game.Game;
 import game.entities.*;
+import game.entities.ghosts.Ghost;
+
+import java.awt.*;
 
 //Classe pour détecter les collision entre deux entités
+//Les fantômes sont rangés dans une grille de seaux, afin de ne tester que ceux situés sous la hitbox testée ; les PacGums et SuperPacGums sont directement cherchées dans leur grille (PelletGrid)
 public class CollisionDetector {
+    private static final int CELL_SIZE = 32;
+
     private Game game;
 
+    private SpatialHash ghosts;
+
+    private long probeCount; //Nombre de tests effectués depuis la création du détecteur (pour les statistiques de performance)
+
     public CollisionDetector(Game game) {
         this.game = game;
     }
 
+    //Construction des grilles une fois le niveau chargé, à partir du tableau des fantômes du registre
+    public void buildIndex(int width, int height) {
+        ghosts = new SpatialHash(width, height, CELL_SIZE);
+        EntityRegistry entities = game.getEntities();
+        for (int i = 0; i < entities.getGhostCount(); i++) {
+            ghosts.insert(entities.getGhost(i));
+        }
+    }
+
+    //Mise à jour des grilles contenant des entités mouvantes (à appeler une fois par tick)
+    public void update() {
+        if (ghosts != null) ghosts.refresh();
+    }
+
+    //Retrait d'une entité détruite de la grille qui la contient
+    public void remove(Entity e) {
+        if (ghosts != null && e instanceof Ghost) ghosts.remove(e);
+    }
+
+    //Case de la PacGum avec laquelle l'entité obj est en collision (-1 s'il n'y en a pas) ; comme pour les autres entités, la hitbox de l'entité obj est son centre
+    public int findPacGum(Entity obj) {
+        probeCount++;
+        return game.getPellets().findPacGum(obj.getxPos() + obj.getSize() / 2, obj.getyPos() + obj.getSize() / 2);
+    }
+
+    //Même chose pour les SuperPacGums
+    public int findSuperPacGum(Entity obj) {
+        probeCount++;
+        return game.getPellets().findSuperPacGum(obj.getxPos() + obj.getSize() / 2, obj.getyPos() + obj.getSize() / 2);
+    }
+
     //Détection de collision entre des entités de type collisionCheck et une entité obj ; on renvoie l'entité du type testé en cas de collision
     //Les entités de type collisionCheck ont une hitbox rectangulaire, et on considère ici que la hitbox de l'entité obj est un point (pour la collision entre Pacman et les fantôme, ça permet d'avoir une marge et faire en sorte que le jeu ne soit pas trop punitif)
     public Entity checkCollision(Entity obj, Class<? extends Entity> collisionCheck) {
-        for (Entity e : game.getEntities()) {
-            if (!e.isDestroyed() && collisionCheck.isInstance(e) && e.getHitbox().contains(obj.getxPos() + obj.getSize() / 2, obj.getyPos() + obj.getSize() / 2)) return e;
+        probeCount++;
+        SpatialHash index = getIndex(collisionCheck);
+        if (index != null) {
+            return index.findContaining(obj.getxPos() + obj.getSize() / 2, obj.getyPos() + obj.getSize() / 2);
+        }
+        int px = obj.getxPos() + obj.getSize() / 2;
+        int py = obj.getyPos() + obj.getSize() / 2;
+        EntityRegistry entities = game.getEntities();
+        if (!MovingEntity.class.isAssignableFrom(collisionCheck)) {
+            for (int i = 0; i < entities.getWallCount(); i++) {
+                Wall e = entities.getWall(i);
+                if (collisionCheck.isInstance(e) && e.getHitbox().contains(px, py)) return e;
+            }
+        }
+        if (!StaticEntity.class.isAssignableFrom(collisionCheck)) {
+            for (int i = 0; i < entities.getMovingEntityCount(); i++) {
+                Entity e = entities.getMovingEntity(i);
+                if (collisionCheck.isInstance(e) && e.getHitbox().contains(px, py)) return e;
+            }
         }
         return null;
     }
 
     //Même chose que la méthode précédente, mais toutes les hitboxes sont considérées comme rectangulaires
     public Entity checkCollisionRect(Entity obj, Class<? extends Entity> collisionCheck) {
-        for (Entity e : game.getEntities()) {
-            if (!e.isDestroyed() && collisionCheck.isInstance(e) && e.getHitbox().intersects(obj.getHitbox())) return e;
+        probeCount++;
+        SpatialHash index = getIndex(collisionCheck);
+        if (index != null) {
+            return index.findIntersecting(obj.getxPos(), obj.getyPos(), obj.getSize(), obj.getSize());
+        }
+        Rectangle hitbox = obj.getHitbox();
+        EntityRegistry entities = game.getEntities();
+        if (!MovingEntity.class.isAssignableFrom(collisionCheck)) {
+            for (int i = 0; i < entities.getWallCount(); i++) {
+                Wall e = entities.getWall(i);
+                if (collisionCheck.isInstance(e) && e.getHitbox().intersects(hitbox)) return e;
+            }
         }
+        if (!StaticEntity.class.isAssignableFrom(collisionCheck)) {
+            for (int i = 0; i < entities.getMovingEntityCount(); i++) {
+                Entity e = entities.getMovingEntity(i);
+                if (collisionCheck.isInstance(e) && e.getHitbox().intersects(hitbox)) return e;
+            }
+        }
+        return null;
+    }
+
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+    //Grille correspondant à un type d'entité (null si ce type n'est pas indexé, on parcourt alors les tableaux du registre qui peuvent contenir ce type)
+    //La grille des fantômes contient tous les fantômes : elle ne sert que pour le type Ghost lui même, un type de fantôme particulier (Blinky...) est cherché dans le tableau du registre
+    private SpatialHash getIndex(Class<?> type) {
+        if (type == Ghost.class) return ghosts;
         return null;
     }
 }
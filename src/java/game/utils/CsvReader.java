@@ -1,7 +1,10 @@
 package game.utils;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,6 +12,9 @@ import java.util.Arrays;
 
 //Classe pour gérer la lecture des fichiers csv
 public class CsvReader {
+    private static final int BUFFER_SIZE = 8192;
+
+    //Lecture générique : une liste de chaînes par ligne (le jeu lit ses niveaux avec readLevel)
     public List<List<String>> parseCsv(URI file) {
         List<List<String>> data = new ArrayList<>();
         try {
@@ -28,4 +34,107 @@ public class CsvReader {
         }
         return data;
     }
+
+    //Lecture d'un niveau sans découper de chaînes : le fichier est lu octet par octet et chaque case est directement rangée dans la grille
+    //Une case est réduite à son premier caractère (une case vide est EMPTY) ; les fins de ligne \n ou \r\n, un ';' en fin de ligne et l'absence de retour à la ligne final sont acceptés
+    //Une ligne vide est une ligne de cases vides (comme avec parseCsv), sauf en fin de fichier où elle est ignorée
+    //Les lignes plus courtes que les autres sont complétées par des cases vides ; leur nombre est donné par LevelData.getPaddedRowCount
+    public LevelData readLevel(URI file) {
+        try (InputStream in = file.toURL().openStream()) {
+            return readLevel(in, file.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture du niveau impossible : " + file, e);
+        }
+    }
+
+    LevelData readLevel(InputStream in, String name) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] tiles = new byte[BUFFER_SIZE];
+        int tileCount = 0;
+        int[] rowLengths = new int[64];
+        int rowCount = 0;
+
+        int rowLength = 0;         //Nombre de cases de la ligne en cours
+        int blankLines = 0;        //Lignes vides depuis la dernière ligne non vide, ajoutées à la grille seulement si une ligne non vide les suit
+        boolean cellStarted = false; //La case en cours a déjà reçu son caractère
+        boolean lineEmpty = true;    //Aucun caractère (hors \r) sur la ligne en cours
+        boolean first = true;
+
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            int start = 0;
+            //Marque d'ordre des octets UTF-8 éventuelle en début de fichier
+            if (first) {
+                first = false;
+                if (read >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF) start = 3;
+            }
+            for (int i = start; i < read; i++) {
+                byte c = buffer[i];
+                if (c == '\n') {
+                    if (lineEmpty) {
+                        blankLines++;
+                    } else {
+                        if (cellStarted) rowLength++; //Dernière case de la ligne (absente si la ligne se termine par ';')
+                        rowLengths = addRows(rowLengths, rowCount, blankLines, rowLength);
+                        rowCount += blankLines + 1;
+                        blankLines = 0;
+                    }
+                    rowLength = 0;
+                    cellStarted = false;
+                    lineEmpty = true;
+                } else if (c == '\r') {
+                    //Ignoré : seul \n termine une ligne
+                } else {
+                    lineEmpty = false;
+                    if (c == ';') {
+                        if (!cellStarted) {
+                            if (tileCount == tiles.length) tiles = Arrays.copyOf(tiles, tileCount * 2);
+                            tiles[tileCount++] = LevelData.EMPTY;
+                        }
+                        rowLength++;
+                        cellStarted = false;
+                    } else if (!cellStarted) {
+                        if (tileCount == tiles.length) tiles = Arrays.copyOf(tiles, tileCount * 2);
+                        tiles[tileCount++] = c;
+                        cellStarted = true;
+                    }
+                }
+            }
+        }
+        //Dernière ligne sans retour à la ligne final
+        if (!lineEmpty) {
+            if (cellStarted) rowLength++;
+            rowLengths = addRows(rowLengths, rowCount, blankLines, rowLength);
+            rowCount += blankLines + 1;
+        }
+        if (rowCount == 0) throw new IOException("Niveau vide : " + name);
+
+        int width = 0;
+        for (int row = 0; row < rowCount; row++) {
+            width = Math.max(width, rowLengths[row]);
+        }
+        if (tileCount == width * rowCount) {
+            return LevelData.fromTiles(width, rowCount, tileCount == tiles.length ? tiles : Arrays.copyOf(tiles, tileCount));
+        }
+
+        //Lignes de longueurs différentes : chaque ligne est recopiée à sa place, complétée par des cases vides
+        int paddedRows = 0;
+        byte[] grid = new byte[width * rowCount];
+        Arrays.fill(grid, LevelData.EMPTY);
+        int offset = 0;
+        for (int row = 0; row < rowCount; row++) {
+            System.arraycopy(tiles, offset, grid, row * width, rowLengths[row]);
+            offset += rowLengths[row];
+            if (rowLengths[row] != width) paddedRows++;
+        }
+        return LevelData.fromTiles(width, rowCount, grid, paddedRows);
+    }
+
+    //Ajout des longueurs de blankLines lignes vides, puis d'une ligne de length cases
+    private static int[] addRows(int[] rowLengths, int rowCount, int blankLines, int length) {
+        if (rowCount + blankLines + 1 > rowLengths.length) rowLengths = Arrays.copyOf(rowLengths, Math.max(rowLengths.length * 2, rowCount + blankLines + 1));
+        Arrays.fill(rowLengths, rowCount, rowCount + blankLines, 0);
+        rowLengths[rowCount + blankLines] = length;
+        return rowLengths;
+    }
 }
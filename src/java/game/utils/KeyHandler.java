@@ -9,8 +9,13 @@ import java.util.ArrayList;
 
 //Classe pour gérer les inputs
 public class KeyHandler implements KeyListener {
+    //Masques des touches, pour lire ou imposer l'état des touches d'un coup (simulation sans fenêtre, rejeu...)
+    public static final int UP = 1;
+    public static final int DOWN = 2;
+    public static final int LEFT = 4;
+    public static final int RIGHT = 8;
 
-    public static List<Key> keys = new ArrayList<>();
+    public List<Key> keys = new ArrayList<>();
 
     public class Key {
         public boolean isPressed;
@@ -31,10 +36,24 @@ public class KeyHandler implements KeyListener {
     public Key k_left = new Key();
     public Key k_right = new Key();
 
+    //Sans fenêtre, l'état des touches est imposé avec setInputBits
+    public KeyHandler() {}
+
     public KeyHandler(GameplayPanel game) {
         game.addKeyListener(this);
     }
 
+    public int getInputBits() {
+        return (k_up.isPressed ? UP : 0) | (k_down.isPressed ? DOWN : 0) | (k_left.isPressed ? LEFT : 0) | (k_right.isPressed ? RIGHT : 0);
+    }
+
+    public void setInputBits(int bits) {
+        k_up.toggle((bits & UP) != 0);
+        k_down.toggle((bits & DOWN) != 0);
+        k_left.toggle((bits & LEFT) != 0);
+        k_right.toggle((bits & RIGHT) != 0);
+    }
+
     public void toggle(KeyEvent e, boolean pressed) {
         if (e.getKeyCode() == KeyEvent.VK_LEFT || e.getKeyCode() == KeyEvent.VK_Q) {
             k_left.toggle(pressed);
@@ -0,0 +1,122 @@
+package game.utils;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+//Contenu d'un niveau : une grille de cases (un octet par case, rangées ligne par ligne) et la table des positions de départ de Pacman et des fantômes
+//Le code d'une case est le caractère qui la représente dans le fichier csv ; les cases de départ sont vides dans la grille, leurs positions étant dans la table
+//La grille est lue directement dans un ByteBuffer, qui peut être le fichier de niveau compilé lui-même (projeté en mémoire, voir LevelFile)
+public final class LevelData {
+    public static final byte EMPTY = ' ';
+    public static final byte WALL = 'x';
+    public static final byte GHOST_HOUSE = '-';
+    public static final byte PAC_GUM = '.';
+    public static final byte SUPER_PAC_GUM = 'o';
+    public static final byte PACMAN = 'P';
+    public static final byte BLINKY = 'b';
+    public static final byte PINKY = 'p';
+    public static final byte INKY = 'i';
+    public static final byte CLYDE = 'c';
+
+    private final int width;
+    private final int height;
+    private final ByteBuffer tiles;
+    private final byte[] spawnTypes;
+    private final int[] spawnColumns;
+    private final int[] spawnRows;
+    private final int paddedRowCount;
+
+    LevelData(int width, int height, ByteBuffer tiles, byte[] spawnTypes, int[] spawnColumns, int[] spawnRows, int paddedRowCount) {
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+        this.spawnTypes = spawnTypes;
+        this.spawnColumns = spawnColumns;
+        this.spawnRows = spawnRows;
+        this.paddedRowCount = paddedRowCount;
+    }
+
+    //Niveau à partir des codes de toutes les cases (rangées ligne par ligne), cases de départ comprises : celles-ci sont déplacées dans la table des départs
+    //Les départs sont rangés colonne par colonne, dans l'ordre où le jeu a toujours créé les fantômes
+    public static LevelData fromTiles(int width, int height, byte[] tiles) {
+        return fromTiles(width, height, tiles, 0);
+    }
+
+    //Même chose, pour une grille dont paddedRowCount lignes étaient trop courtes dans le fichier lu (complétées par des cases vides)
+    static LevelData fromTiles(int width, int height, byte[] tiles, int paddedRowCount) {
+        int spawnCount = 0;
+        for (byte tile : tiles) {
+            if (isSpawn(tile)) spawnCount++;
+        }
+        byte[] spawnTypes = new byte[spawnCount];
+        int[] spawnColumns = new int[spawnCount];
+        int[] spawnRows = new int[spawnCount];
+        int n = 0;
+        for (int column = 0; column < width; column++) {
+            for (int row = 0; row < height; row++) {
+                int i = row * width + column;
+                if (isSpawn(tiles[i])) {
+                    spawnTypes[n] = tiles[i];
+                    spawnColumns[n] = column;
+                    spawnRows[n] = row;
+                    n++;
+                    tiles[i] = EMPTY;
+                }
+            }
+        }
+        return new LevelData(width, height, ByteBuffer.wrap(tiles), spawnTypes, spawnColumns, spawnRows, paddedRowCount);
+    }
+
+    //Chargement d'un niveau, compilé (extension LevelFile.EXTENSION) ou au format csv
+    public static LevelData load(URI file) {
+        if (file.toString().toLowerCase(Locale.ROOT).endsWith(LevelFile.EXTENSION)) {
+            return LevelFile.read(file);
+        }
+        return new CsvReader().readLevel(file);
+    }
+
+    public static boolean isSpawn(byte tile) {
+        return tile == PACMAN || tile == BLINKY || tile == PINKY || tile == INKY || tile == CLYDE;
+    }
+
+    //Code de la case (EMPTY en dehors du niveau)
+    public byte getTile(int column, int row) {
+        if (column < 0 || row < 0 || column >= width || row >= height) return EMPTY;
+        return tiles.get(row * width + column);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    //Nombre de lignes du fichier csv plus courtes que la plus longue (lignes vides comprises), complétées par des cases vides ; 0 pour un niveau compilé
+    public int getPaddedRowCount() {
+        return paddedRowCount;
+    }
+
+    public int getSpawnCount() {
+        return spawnTypes.length;
+    }
+
+    public byte getSpawnType(int i) {
+        return spawnTypes[i];
+    }
+
+    public int getSpawnColumn(int i) {
+        return spawnColumns[i];
+    }
+
+    public int getSpawnRow(int i) {
+        return spawnRows[i];
+    }
+
+    //Grille en lecture seule (position 0, une case par octet)
+    ByteBuffer getTiles() {
+        return tiles.duplicate();
+    }
+}
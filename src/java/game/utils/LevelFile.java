@@ -0,0 +1,109 @@
+package game.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+//Format binaire des niveaux compilés : le niveau est lu sans aucune analyse, le fichier étant projeté en mémoire et sa grille utilisée telle quelle
+//En-tête (16 octets) : "PMLV", version (2 octets), nombre de départs (2 octets, non signé : MAX_SPAWN_COUNT au plus), largeur et hauteur en cases (4 octets chacune)
+//Puis la table des départs (12 octets par départ : code, colonne, ligne) et enfin la grille, un octet par case, ligne par ligne (voir LevelData)
+public class LevelFile {
+    public static final String EXTENSION = ".lvl";
+
+    private static final int MAGIC = 0x504D4C56; //"PMLV"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SPAWN_SIZE = 12;
+    public static final int MAX_SPAWN_COUNT = 0xFFFF;
+
+    private LevelFile() {}
+
+    //Lecture d'un niveau compilé : un fichier est projeté en mémoire, une autre ressource (dans un jar...) est lue d'un bloc
+    public static LevelData read(URI file) {
+        try {
+            if ("file".equals(file.getScheme())) {
+                try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); //La projection reste valide après la fermeture du fichier
+                    return read(buffer);
+                }
+            }
+            try (InputStream in = file.toURL().openStream()) {
+                return read(ByteBuffer.wrap(in.readAllBytes()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture du niveau impossible : " + file, e);
+        }
+    }
+
+    public static LevelData read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) throw new IOException("Ce fichier n'est pas un niveau compilé");
+        if (buffer.getShort(4) != VERSION) throw new IOException("Version de niveau compilé non gérée : " + buffer.getShort(4));
+        int spawnCount = buffer.getShort(6) & 0xFFFF;
+        int width = buffer.getInt(8);
+        int height = buffer.getInt(12);
+        int tilesOffset = HEADER_SIZE + spawnCount * SPAWN_SIZE;
+        if (tilesOffset > buffer.limit()) throw new IOException("Table des départs tronquée : " + spawnCount + " départs annoncés");
+        if (width <= 0 || height <= 0 || (long) width * height != buffer.limit() - (long) tilesOffset) throw new IOException("Niveau compilé tronqué ou invalide");
+
+        byte[] spawnTypes = new byte[spawnCount];
+        int[] spawnColumns = new int[spawnCount];
+        int[] spawnRows = new int[spawnCount];
+        for (int i = 0; i < spawnCount; i++) {
+            int offset = HEADER_SIZE + i * SPAWN_SIZE;
+            spawnTypes[i] = (byte) buffer.getInt(offset);
+            spawnColumns[i] = buffer.getInt(offset + 4);
+            spawnRows[i] = buffer.getInt(offset + 8);
+        }
+
+        ByteBuffer tiles = buffer.duplicate();
+        tiles.position(tilesOffset);
+        return new LevelData(width, height, tiles.slice().asReadOnlyBuffer(), spawnTypes, spawnColumns, spawnRows, 0);
+    }
+
+    //Le nombre de départs et la taille du fichier sont vérifiés avant l'écriture : l'en-tête ne pourrait pas les représenter, et le fichier serait invalide
+    public static void write(LevelData level, Path file) throws IOException {
+        int width = level.getWidth();
+        int height = level.getHeight();
+        int spawnCount = level.getSpawnCount();
+        if (spawnCount > MAX_SPAWN_COUNT) throw new IllegalArgumentException("Trop de départs pour un niveau compilé : " + spawnCount + " (" + MAX_SPAWN_COUNT + " au plus)");
+        long size = HEADER_SIZE + (long) spawnCount * SPAWN_SIZE + (long) width * height;
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Niveau trop grand pour un niveau compilé : " + width + "x" + height);
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) spawnCount);
+        buffer.putInt(width);
+        buffer.putInt(height);
+        for (int i = 0; i < spawnCount; i++) {
+            buffer.putInt(level.getSpawnType(i));
+            buffer.putInt(level.getSpawnColumn(i));
+            buffer.putInt(level.getSpawnRow(i));
+        }
+        buffer.put(level.getTiles());
+        Files.write(file, buffer.array());
+    }
+
+    //Utilisation : LevelFile <fichier csv du niveau> [fichier compilé] (par défaut, le même nom avec l'extension .lvl)
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Utilisation : LevelFile <fichier csv du niveau> [fichier compilé]");
+            return;
+        }
+        Path csv = Paths.get(args[0]);
+        Path compiled = args.length > 1 ? Paths.get(args[1]) : csv.resolveSibling(csv.getFileName().toString().replaceFirst("\\.csv$", "") + EXTENSION);
+        LevelData level = LevelData.load(csv.toUri());
+        if (level.getPaddedRowCount() > 0) {
+            System.out.println("Attention : " + level.getPaddedRowCount() + " ligne(s) de moins de " + level.getWidth() + " cases, complétée(s) par des cases vides");
+        }
+        write(level, compiled);
+        System.out.println("Niveau compilé : " + compiled);
+    }
+}
@@ -0,0 +1,267 @@
+package game.utils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Champ de navigation d'un niveau, construit une seule fois au chargement, qui donne la longueur du plus court chemin entre deux positions de la grille en tenant compte des murs
+//Un "noeud" est une position alignée sur la grille (multiple de 8 pixels) où une entité de 32 pixels ne touche aucun mur ; deux noeuds voisins sont à un déplacement de 8 pixels l'un de l'autre
+//Les distances (en nombre de déplacements) sont rangées dans un tableau de short à plat : distances[cible * nbNoeuds + départ]
+//Si ce tableau dépasse le budget mémoire (grands niveaux), seules les lignes des cibles récemment demandées sont calculées (parcours en largeur depuis la cible) et gardées en cache
+public class NavigationField {
+    public static final long DEFAULT_MEMORY_BUDGET = 8L * 1024 * 1024; //En octets, pour chaque champ de navigation
+    public static final int UNREACHABLE = -1;
+
+    private static final int ENTITY_SIZE = 32;
+    private static final int MARGIN = 3; //Colonnes (et lignes) de noeuds en dehors de la zone de jeu, empruntées dans les tunnels
+
+    private final int cellSize;
+    private final int width;
+    private final int height;
+    private final int nodesPerRow;
+    private final int nodesPerColumn;
+
+    private final int[] nodeIndex; //Pour chaque position de la grille : numéro du noeud, ou -1 si la position n'est pas praticable
+    private final int[] nearestNode; //Pour chaque position de la grille : noeud praticable le plus proche (pour les cibles situées dans un mur ou hors du labyrinthe)
+    private final int[] nodePositions; //Pour chaque noeud : sa position dans la grille
+    private final int[] neighbors; //Pour chaque noeud : ses 4 voisins (gauche, droite, haut, bas), ou -1
+    private final int nodeCount;
+
+    private final short[] distances; //Table complète, ou null si elle dépasse le budget mémoire
+    private final Map<Integer, short[]> cachedRows; //Lignes calculées à la demande lorsque la table complète n'est pas disponible
+    private final int[] queue;
+
+    public NavigationField(WallGrid wallGrid, boolean ignoreGhostHouses, long memoryBudget) {
+        this.cellSize = wallGrid.getCellSize();
+        this.width = wallGrid.getCellsPerRow() * cellSize;
+        this.height = wallGrid.getCellsPerColumn() * cellSize;
+        this.nodesPerRow = wallGrid.getCellsPerRow() + MARGIN + 1;
+        this.nodesPerColumn = wallGrid.getCellsPerColumn() + MARGIN + 1;
+
+        int positions = nodesPerRow * nodesPerColumn;
+        queue = new int[positions];
+
+        //Positions où une entité tient sans toucher de mur
+        boolean[] free = new boolean[positions];
+        for (int ny = 0; ny < nodesPerColumn; ny++) {
+            for (int nx = 0; nx < nodesPerRow; nx++) {
+                free[ny * nodesPerRow + nx] = !wallGrid.intersectsWall(toPixelX(nx), toPixelY(ny), ENTITY_SIZE, ENTITY_SIZE, ignoreGhostHouses);
+            }
+        }
+
+        //Seule la plus grande zone connexe est gardée : les positions isolées (derrière les murs du bord, à l'intérieur de la maison des fantômes...) ne sont jamais empruntées
+        int[] component = new int[positions];
+        Arrays.fill(component, -1);
+        int bestComponent = -1;
+        int bestSize = 0;
+        int componentCount = 0;
+        for (int p = 0; p < positions; p++) {
+            if (!free[p] || component[p] != -1) continue;
+            int size = floodFill(free, component, p, componentCount);
+            if (size > bestSize) {
+                bestSize = size;
+                bestComponent = componentCount;
+            }
+            componentCount++;
+        }
+
+        nodeIndex = new int[positions];
+        Arrays.fill(nodeIndex, -1);
+        int count = 0;
+        for (int p = 0; p < positions; p++) {
+            if (component[p] == bestComponent && bestComponent != -1) nodeIndex[p] = count++;
+        }
+        nodeCount = count;
+
+        nodePositions = new int[nodeCount];
+        for (int p = 0; p < positions; p++) {
+            if (nodeIndex[p] != -1) nodePositions[nodeIndex[p]] = p;
+        }
+
+        neighbors = new int[nodeCount * 4];
+        int[] adjacent = new int[4];
+        for (int p = 0; p < positions; p++) {
+            int node = nodeIndex[p];
+            if (node == -1) continue;
+            adjacentPositions(free, p, adjacent);
+            for (int k = 0; k < 4; k++) {
+                neighbors[node * 4 + k] = adjacent[k] == -1 ? -1 : nodeIndex[adjacent[k]];
+            }
+        }
+
+        nearestNode = computeNearestNodes(positions);
+
+        long tableBytes = (long) nodeCount * nodeCount * Short.BYTES;
+        if (nodeCount > 0 && tableBytes <= memoryBudget) {
+            distances = new short[nodeCount * nodeCount];
+            short[] row = new short[nodeCount];
+            for (int target = 0; target < nodeCount; target++) {
+                computeRow(target, row);
+                System.arraycopy(row, 0, distances, target * nodeCount, nodeCount);
+            }
+            cachedRows = null;
+        } else {
+            distances = null;
+            int maxRows = (int) Math.max(1, Math.min(Integer.MAX_VALUE, memoryBudget / Math.max(1L, (long) nodeCount * Short.BYTES)));
+            cachedRows = new LinkedHashMap<Integer, short[]>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, short[]> eldest) {
+                    return size() > maxRows;
+                }
+            };
+        }
+    }
+
+    //Noeud correspondant exactement à la position (x, y), ou -1 si elle n'est pas alignée sur la grille ou pas praticable
+    public int getNode(int x, int y) {
+        if (Math.floorMod(x, cellSize) != 0 || Math.floorMod(y, cellSize) != 0) return -1;
+        int nx = Math.floorDiv(x, cellSize) + MARGIN;
+        int ny = Math.floorDiv(y, cellSize) + MARGIN;
+        if (nx < 0 || ny < 0 || nx >= nodesPerRow || ny >= nodesPerColumn) return -1;
+        return nodeIndex[ny * nodesPerRow + nx];
+    }
+
+    //Noeud praticable le plus proche d'un point quelconque (les cibles des fantômes peuvent être dans un mur, ou en dehors de la zone de jeu)
+    public int getNearestNode(int x, int y) {
+        if (nodeCount == 0) return -1;
+        int nx = Math.min(Math.max(Math.floorDiv(x + cellSize / 2, cellSize) + MARGIN, 0), nodesPerRow - 1);
+        int ny = Math.min(Math.max(Math.floorDiv(y + cellSize / 2, cellSize) + MARGIN, 0), nodesPerColumn - 1);
+        return nearestNode[ny * nodesPerRow + nx];
+    }
+
+    //Longueur du plus court chemin (en déplacements de 8 pixels) entre deux noeuds, ou UNREACHABLE
+    public int getDistance(int fromNode, int targetNode) {
+        if (fromNode < 0 || targetNode < 0) return UNREACHABLE;
+        if (distances != null) return distances[targetNode * nodeCount + fromNode];
+        short[] row = cachedRows.get(targetNode);
+        if (row == null) {
+            row = new short[nodeCount];
+            computeRow(targetNode, row);
+            cachedRows.put(targetNode, row);
+        }
+        return row[fromNode];
+    }
+
+    //Voisin d'un noeud dans une direction (0 : gauche, 1 : droite, 2 : haut, 3 : bas), ou -1
+    public int getNeighbor(int node, int direction) {
+        return neighbors[node * 4 + direction];
+    }
+
+    //Colonne et ligne d'un noeud dans la grille des noeuds (qui déborde de MARGIN cases à gauche et en haut de la zone de jeu)
+    public int getNodeColumn(int node) {
+        return nodePositions[node] % nodesPerRow;
+    }
+
+    public int getNodeRow(int node) {
+        return nodePositions[node] / nodesPerRow;
+    }
+
+    public int getNodesPerRow() {
+        return nodesPerRow;
+    }
+
+    public int getNodesPerColumn() {
+        return nodesPerColumn;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    //Indique si la table complète des distances a pu être construite dans le budget mémoire
+    public boolean isPrecomputed() {
+        return distances != null;
+    }
+
+    //Parcours en largeur depuis la cible : le graphe n'est pas orienté, on obtient donc la distance de chaque noeud vers la cible
+    private void computeRow(int target, short[] row) {
+        Arrays.fill(row, (short) UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+        row[target] = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int node = queue[head++];
+            int next = row[node] + 1;
+            for (int k = 0; k < 4; k++) {
+                int neighbor = neighbors[node * 4 + k];
+                if (neighbor != -1 && row[neighbor] == UNREACHABLE) {
+                    row[neighbor] = (short) Math.min(next, Short.MAX_VALUE);
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    private int floodFill(boolean[] free, int[] component, int start, int id) {
+        int[] adjacent = new int[4];
+        int head = 0;
+        int tail = 0;
+        component[start] = id;
+        queue[tail++] = start;
+        while (head < tail) {
+            int p = queue[head++];
+            adjacentPositions(free, p, adjacent);
+            for (int k = 0; k < 4; k++) {
+                if (adjacent[k] != -1 && component[adjacent[k]] == -1) {
+                    component[adjacent[k]] = id;
+                    queue[tail++] = adjacent[k];
+                }
+            }
+        }
+        return tail;
+    }
+
+    //Positions praticables voisines d'une position praticable
+    //Les entités ne changent de direction que dans la zone de jeu : en dehors (dans un tunnel), on ne peut que continuer tout droit, et les bords opposés sont reliés comme dans MovingEntity
+    private void adjacentPositions(boolean[] free, int p, int[] adjacent) {
+        int nx = p % nodesPerRow;
+        int ny = p / nodesPerRow;
+        int x = toPixelX(nx);
+        int y = toPixelY(ny);
+        boolean horizontal = y > 0 && y < height;
+        boolean vertical = x > 0 && x < width;
+
+        adjacent[0] = horizontal ? freePosition(free, nx == 0 ? nodesPerRow - 1 : nx - 1, ny) : -1;
+        adjacent[1] = horizontal ? freePosition(free, nx == nodesPerRow - 1 ? 0 : nx + 1, ny) : -1;
+        adjacent[2] = vertical ? freePosition(free, nx, ny == 0 ? nodesPerColumn - 1 : ny - 1) : -1;
+        adjacent[3] = vertical ? freePosition(free, nx, ny == nodesPerColumn - 1 ? 0 : ny + 1) : -1;
+    }
+
+    private int freePosition(boolean[] free, int nx, int ny) {
+        int p = ny * nodesPerRow + nx;
+        return free[p] ? p : -1;
+    }
+
+    //Recherche en largeur partant de tous les noeuds à la fois, sur toute la grille (murs compris), pour associer à chaque position le noeud le plus proche
+    private int[] computeNearestNodes(int positions) {
+        int[] nearest = new int[positions];
+        Arrays.fill(nearest, -1);
+        int head = 0;
+        int tail = 0;
+        for (int p = 0; p < positions; p++) {
+            if (nodeIndex[p] != -1) {
+                nearest[p] = nodeIndex[p];
+                queue[tail++] = p;
+            }
+        }
+        while (head < tail) {
+            int p = queue[head++];
+            int nx = p % nodesPerRow;
+            int ny = p / nodesPerRow;
+            if (nx > 0 && nearest[p - 1] == -1) { nearest[p - 1] = nearest[p]; queue[tail++] = p - 1; }
+            if (nx < nodesPerRow - 1 && nearest[p + 1] == -1) { nearest[p + 1] = nearest[p]; queue[tail++] = p + 1; }
+            if (ny > 0 && nearest[p - nodesPerRow] == -1) { nearest[p - nodesPerRow] = nearest[p]; queue[tail++] = p - nodesPerRow; }
+            if (ny < nodesPerColumn - 1 && nearest[p + nodesPerRow] == -1) { nearest[p + nodesPerRow] = nearest[p]; queue[tail++] = p + nodesPerRow; }
+        }
+        return nearest;
+    }
+
+    private int toPixelX(int nx) {
+        return (nx - MARGIN) * cellSize;
+    }
+
+    private int toPixelY(int ny) {
+        return (ny - MARGIN) * cellSize;
+    }
+}
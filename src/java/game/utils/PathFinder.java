@@ -0,0 +1,269 @@
+package game.utils;
+
+import java.util.Arrays;
+
+//Service de recherche de chemin sur le graphe d'un champ de navigation, partagé par les fantômes d'une partie
+//Si le champ de navigation a pu construire sa table complète des distances (parcours en largeur depuis chaque cible), les longueurs et les chemins sont lus directement dans cette table : ni recherche, ni copie en cache
+//Sinon, les chemins sont cherchés par A* et gardés dans un cache indexé par (noeud, cible) : pour chaque noeud d'un chemin trouvé, on garde le noeud suivant et la longueur restante (chaque fin d'un plus court chemin est elle aussi un plus court chemin)
+//Ainsi, un fantôme qui suit son chemin retrouve à chaque intersection la suite de son trajet dans le cache au lieu de relancer une recherche
+//Le cache est une table à adressage ouvert sur des tableaux de types primitifs, sans allocation ; il est vidé lorsqu'il est plein ou que le niveau change (setNavigationField)
+public class PathFinder {
+    public static final int DEFAULT_CACHE_CAPACITY = 4096;
+    public static final int UNREACHABLE = -1;
+
+    private static final long EMPTY = -1L; //Clé d'une case libre du cache (les clés sont toujours positives)
+
+    private NavigationField field;
+
+    //Cache : clé (noeud << 32 | cible), noeud suivant sur le chemin (-1 pour la cible elle même) et longueur restante (UNREACHABLE s'il n'y a pas de chemin)
+    private final long[] cacheKeys;
+    private final int[] cacheNext;
+    private final int[] cacheLengths;
+    private final int cacheCapacity;
+    private int cacheSize = 0;
+
+    private int cacheHits = 0;
+    private int cacheMisses = 0;
+
+    //Tableaux de travail de A*, réutilisés d'une recherche à l'autre ; le numéro de recherche évite de les remettre à zéro (null si la table des distances est disponible)
+    private int[] costs;
+    private int[] parents;
+    private int[] visits;
+    private int[] closed;
+    private int search = 0;
+    private int[] heapNodes;
+    private int[] heapPriorities;
+    private int heapSize;
+
+    //Chemin renvoyé par findPath, réutilisé d'un appel à l'autre
+    private final Path path = new Path();
+
+    public PathFinder(NavigationField field) {
+        this(field, DEFAULT_CACHE_CAPACITY);
+    }
+
+    public PathFinder(NavigationField field, int cacheCapacity) {
+        this.cacheCapacity = Math.max(1, cacheCapacity);
+        //La table a au moins deux fois plus de cases que d'entrées : les suites de cases occupées restent courtes
+        int tableSize = Integer.highestOneBit(this.cacheCapacity) << 2;
+        cacheKeys = new long[tableSize];
+        cacheNext = new int[tableSize];
+        cacheLengths = new int[tableSize];
+        setNavigationField(field);
+    }
+
+    //Changement du graphe (par exemple si les murs du niveau changent) : les chemins en cache ne sont plus valables
+    public void setNavigationField(NavigationField field) {
+        this.field = field;
+        clearCache();
+        if (field.isPrecomputed()) {
+            costs = parents = visits = closed = heapNodes = heapPriorities = null;
+            return;
+        }
+        int nodeCount = field.getNodeCount();
+        costs = new int[nodeCount];
+        parents = new int[nodeCount];
+        visits = new int[nodeCount];
+        closed = new int[nodeCount];
+        search = 0;
+        heapNodes = new int[nodeCount * 4 + 1];
+        heapPriorities = new int[nodeCount * 4 + 1];
+    }
+
+    //Plus court chemin entre deux noeuds du champ de navigation, ou null s'il n'y en a pas
+    //Le chemin renvoyé appartient au service : il est réutilisé (et donc modifié) par l'appel suivant
+    public Path findPath(int fromNode, int targetNode) {
+        int length = getPathLength(fromNode, targetNode);
+        if (length == UNREACHABLE) return null;
+        if (path.nodes.length <= length) path.nodes = new int[Math.max(length + 1, path.nodes.length * 2)];
+        path.length = length;
+        int node = fromNode;
+        path.nodes[0] = node;
+        for (int i = 1; i <= length; i++) {
+            node = getNextNode(node, targetNode, length - i + 1);
+            path.nodes[i] = node;
+        }
+        return path;
+    }
+
+    //Longueur (en déplacements de 8 pixels) du plus court chemin entre deux noeuds, ou UNREACHABLE
+    public int getPathLength(int fromNode, int targetNode) {
+        if (fromNode < 0 || targetNode < 0) return UNREACHABLE;
+        if (costs == null) return field.getDistance(fromNode, targetNode);
+        int slot = findSlot(key(fromNode, targetNode));
+        if (cacheKeys[slot] != EMPTY) {
+            cacheHits++;
+            return cacheLengths[slot];
+        }
+        cacheMisses++;
+        return search(fromNode, targetNode);
+    }
+
+    public NavigationField getNavigationField() {
+        return field;
+    }
+
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    public int getCacheMisses() {
+        return cacheMisses;
+    }
+
+    //Noeud suivant sur un plus court chemin de longueur length entre node et la cible
+    private int getNextNode(int node, int targetNode, int length) {
+        if (costs == null) {
+            //Table des distances : le premier voisin plus proche d'un déplacement de la cible
+            for (int direction = 0; direction < 4; direction++) {
+                int neighbor = field.getNeighbor(node, direction);
+                if (neighbor != -1 && field.getDistance(neighbor, targetNode) == length - 1) return neighbor;
+            }
+            return -1;
+        }
+        int slot = findSlot(key(node, targetNode));
+        if (cacheKeys[slot] == EMPTY) {
+            //La suite du chemin a été retirée du cache (cache vidé pendant son enregistrement) : on la cherche à nouveau
+            search(node, targetNode);
+            slot = findSlot(key(node, targetNode));
+        }
+        return cacheNext[slot];
+    }
+
+    //Recherche A* ; le chemin trouvé (ou son absence) est enregistré dans le cache, et sa longueur renvoyée
+    private int search(int fromNode, int targetNode) {
+        search++;
+        heapSize = 0;
+        costs[fromNode] = 0;
+        parents[fromNode] = -1;
+        visits[fromNode] = search;
+        push(fromNode, heuristic(fromNode, targetNode));
+
+        while (heapSize > 0) {
+            int node = pop();
+            if (closed[node] == search) continue; //Entrée périmée du tas (le noeud a été atteint plus tôt par un chemin plus court)
+            closed[node] = search;
+            if (node == targetNode) {
+                cachePath(targetNode);
+                return costs[targetNode];
+            }
+
+            int cost = costs[node] + 1;
+            for (int direction = 0; direction < 4; direction++) {
+                int neighbor = field.getNeighbor(node, direction);
+                if (neighbor == -1 || closed[neighbor] == search) continue;
+                if (visits[neighbor] != search || cost < costs[neighbor]) {
+                    visits[neighbor] = search;
+                    costs[neighbor] = cost;
+                    parents[neighbor] = node;
+                    push(neighbor, cost + heuristic(neighbor, targetNode));
+                }
+            }
+        }
+        cachePut(fromNode, targetNode, -1, UNREACHABLE);
+        return UNREACHABLE;
+    }
+
+    //Enregistrement de chaque fin du chemin trouvé, en remontant les parents depuis la cible
+    private void cachePath(int targetNode) {
+        int next = -1;
+        for (int node = targetNode; node != -1; node = parents[node]) {
+            cachePut(node, targetNode, next, costs[targetNode] - costs[node]);
+            next = node;
+        }
+    }
+
+    private void cachePut(int node, int targetNode, int next, int length) {
+        if (cacheSize >= cacheCapacity) clearCache();
+        long key = key(node, targetNode);
+        int slot = findSlot(key);
+        if (cacheKeys[slot] == EMPTY) {
+            cacheKeys[slot] = key;
+            cacheSize++;
+        }
+        cacheNext[slot] = next;
+        cacheLengths[slot] = length;
+    }
+
+    //Case de la clé dans le cache, ou première case libre où l'insérer (sondage linéaire)
+    private int findSlot(long key) {
+        int mask = cacheKeys.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        while (cacheKeys[slot] != EMPTY && cacheKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void clearCache() {
+        Arrays.fill(cacheKeys, EMPTY);
+        cacheSize = 0;
+    }
+
+    private static long key(int node, int targetNode) {
+        return ((long) node << 32) | targetNode;
+    }
+
+    //Distance de Manhattan entre deux noeuds, en tenant compte des tunnels qui relient les bords opposés (elle ne surestime donc jamais la vraie distance)
+    private int heuristic(int node, int targetNode) {
+        int dx = Math.abs(field.getNodeColumn(node) - field.getNodeColumn(targetNode));
+        int dy = Math.abs(field.getNodeRow(node) - field.getNodeRow(targetNode));
+        return Math.min(dx, field.getNodesPerRow() - dx) + Math.min(dy, field.getNodesPerColumn() - dy);
+    }
+
+    //Tas binaire minimal (priorité, noeud)
+    private void push(int node, int priority) {
+        if (heapSize == heapNodes.length) {
+            heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            heapPriorities = Arrays.copyOf(heapPriorities, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heapPriorities[parent] <= priority) break;
+            heapNodes[i] = heapNodes[parent];
+            heapPriorities[i] = heapPriorities[parent];
+            i = parent;
+        }
+        heapNodes[i] = node;
+        heapPriorities[i] = priority;
+    }
+
+    private int pop() {
+        int top = heapNodes[0];
+        int node = heapNodes[--heapSize];
+        int priority = heapPriorities[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapPriorities[child + 1] < heapPriorities[child]) child++;
+            if (heapPriorities[child] >= priority) break;
+            heapNodes[i] = heapNodes[child];
+            heapPriorities[i] = heapPriorities[child];
+            i = child;
+        }
+        heapNodes[i] = node;
+        heapPriorities[i] = priority;
+        return top;
+    }
+
+    //Chemin trouvé : les noeuds traversés, du noeud de départ à la cible (l'objet est réutilisé par chaque appel de findPath)
+    public static final class Path {
+        private int[] nodes = new int[64];
+        private int length;
+
+        private Path() {}
+
+        //Nombre de déplacements jusqu'à la cible
+        public int length() {
+            return length;
+        }
+
+        //i-ème noeud du chemin (0 : le noeud de départ)
+        public int getNode(int i) {
+            if (i > length) throw new IndexOutOfBoundsException(i);
+            return nodes[i];
+        }
+    }
+}
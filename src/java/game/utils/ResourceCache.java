@@ -0,0 +1,67 @@
+package game.utils;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Cache des images du jeu, partagé par toutes les entités (et toutes les parties) : chaque fichier du dossier img n'est décodé qu'une seule fois
+//Les images sont converties au format de l'écran pour que leur affichage puisse être accéléré, et ne doivent donc pas être modifiées par ceux qui les utilisent
+//Les planches de sprites découpées (SpriteAtlas) sont elles aussi partagées, un changement de sprite en cours de partie n'est alors qu'une lecture dans le cache
+public class ResourceCache {
+    private static final Map<String, BufferedImage> images = new ConcurrentHashMap<>();
+    private static final Map<String, SpriteAtlas> atlases = new ConcurrentHashMap<>();
+
+    private ResourceCache() {}
+
+    //Image du dossier img (décodée au premier appel)
+    public static BufferedImage getImage(String name) throws IOException {
+        try {
+            return images.computeIfAbsent(name, ResourceCache::load);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    //Planche de sprites du dossier img découpée en images de frameSize pixels (découpée au premier appel)
+    public static SpriteAtlas getSpriteAtlas(String name, int frameSize, int framesPerDirection) throws IOException {
+        BufferedImage sheet = getImage(name);
+        return atlases.computeIfAbsent(name + "@" + frameSize + "x" + framesPerDirection, key -> new SpriteAtlas(sheet, frameSize, framesPerDirection));
+    }
+
+    //Chargement anticipé de plusieurs images (au démarrage, pour ne pas décoder pendant la partie), éventuellement en parallèle
+    public static void preload(boolean parallel, String... names) throws IOException {
+        try {
+            if (parallel) {
+                Arrays.stream(names).parallel().forEach(name -> images.computeIfAbsent(name, ResourceCache::load));
+            } else {
+                for (String name : names) {
+                    images.computeIfAbsent(name, ResourceCache::load);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static BufferedImage load(String name) {
+        URL url = ResourceCache.class.getClassLoader().getResource("img/" + name);
+        if (url == null) throw new UncheckedIOException(new IOException("Image introuvable : img/" + name));
+        try {
+            BufferedImage decoded = ImageIO.read(url);
+            BufferedImage image = SpriteAtlas.createCompatibleImage(decoded.getWidth(), decoded.getHeight());
+            Graphics2D g = image.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(decoded, 0, 0, null);
+            g.dispose();
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
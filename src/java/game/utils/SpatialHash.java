@@ -0,0 +1,172 @@
+package game.utils;
+
+import game.entities.Entity;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+//Grille de "seaux" (spatial hash uniforme) pour ne tester que les entités proches lors d'une détection de collision
+//Chaque entité enregistrée reçoit un numéro d'ordre (son "slot"), et chaque case de la grille contient les slots des entités dont la hitbox la recouvre
+//Quand plusieurs entités sont en collision, on renvoie celle enregistrée en premier, comme le ferait un parcours de la liste des entités
+public class SpatialHash {
+    private final int cellSize;
+    private final int cellsPerRow;
+    private final int cellsPerColumn;
+
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+
+    //Pour chaque slot : l'entité, et la plage de cases qu'elle occupe actuellement
+    private final List<Entity> entities = new ArrayList<>();
+    private int[] cellBounds = new int[16 * 4];
+    private final Map<Entity, Integer> slots = new IdentityHashMap<>();
+
+    public SpatialHash(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.cellsPerRow = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.cellsPerColumn = Math.max(1, (height + cellSize - 1) / cellSize);
+        this.buckets = new int[cellsPerRow * cellsPerColumn][];
+        this.bucketSizes = new int[cellsPerRow * cellsPerColumn];
+    }
+
+    //Enregistrement d'une entité dans les cases recouvertes par sa hitbox
+    public void insert(Entity e) {
+        int slot = entities.size();
+        entities.add(e);
+        slots.put(e, slot);
+        if (cellBounds.length < (slot + 1) * 4) {
+            int[] newBounds = new int[cellBounds.length * 2];
+            System.arraycopy(cellBounds, 0, newBounds, 0, cellBounds.length);
+            cellBounds = newBounds;
+        }
+        setCellBounds(slot, e);
+        addToCells(slot);
+    }
+
+    //Retrait d'une entité (par exemple lorsqu'elle est détruite)
+    public void remove(Entity e) {
+        Integer slot = slots.remove(e);
+        if (slot == null) return;
+        removeFromCells(slot);
+        entities.set(slot, null);
+    }
+
+    //Mise à jour incrémentale : seules les entités ayant changé de case sont déplacées d'un seau à l'autre, les entités détruites depuis la mise à jour précédente sont retirées
+    public void refresh() {
+        for (int slot = 0; slot < entities.size(); slot++) {
+            Entity e = entities.get(slot);
+            if (e == null) continue;
+            if (e.isDestroyed()) {
+                remove(e);
+                continue;
+            }
+
+            int i = slot * 4;
+            int x0 = cellX(e.getxPos());
+            int y0 = cellY(e.getyPos());
+            int x1 = cellX(e.getxPos() + e.getSize() - 1);
+            int y1 = cellY(e.getyPos() + e.getSize() - 1);
+            if (x0 != cellBounds[i] || y0 != cellBounds[i + 1] || x1 != cellBounds[i + 2] || y1 != cellBounds[i + 3]) {
+                removeFromCells(slot);
+                setCellBounds(slot, e);
+                addToCells(slot);
+            }
+        }
+    }
+
+    //Première entité (non détruite) dont la hitbox contient le point (px, py), même sémantique que Rectangle.contains
+    public Entity findContaining(int px, int py) {
+        int cell = cellY(py) * cellsPerRow + cellX(px);
+        int[] bucket = buckets[cell];
+        int best = Integer.MAX_VALUE;
+        for (int k = 0; k < bucketSizes[cell]; k++) {
+            int slot = bucket[k];
+            Entity e = entities.get(slot);
+            if (slot < best && !e.isDestroyed()
+                    && px >= e.getxPos() && py >= e.getyPos() && px < e.getxPos() + e.getSize() && py < e.getyPos() + e.getSize()) {
+                best = slot;
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : entities.get(best);
+    }
+
+    //Première entité (non détruite) dont la hitbox intersecte le rectangle (x, y, width, height), même sémantique que Rectangle.intersects
+    public Entity findIntersecting(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) return null;
+        int x0 = cellX(x);
+        int y0 = cellY(y);
+        int x1 = cellX(x + width - 1);
+        int y1 = cellY(y + height - 1);
+        int best = Integer.MAX_VALUE;
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                int cell = cy * cellsPerRow + cx;
+                int[] bucket = buckets[cell];
+                for (int k = 0; k < bucketSizes[cell]; k++) {
+                    int slot = bucket[k];
+                    Entity e = entities.get(slot);
+                    if (slot < best && !e.isDestroyed() && e.getSize() > 0
+                            && x < e.getxPos() + e.getSize() && e.getxPos() < x + width && y < e.getyPos() + e.getSize() && e.getyPos() < y + height) {
+                        best = slot;
+                    }
+                }
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : entities.get(best);
+    }
+
+    //Les positions en dehors de la zone de jeu (tunnels) sont ramenées dans les cases du bord
+    private int cellX(int x) {
+        return Math.min(Math.max(Math.floorDiv(x, cellSize), 0), cellsPerRow - 1);
+    }
+
+    private int cellY(int y) {
+        return Math.min(Math.max(Math.floorDiv(y, cellSize), 0), cellsPerColumn - 1);
+    }
+
+    private void setCellBounds(int slot, Entity e) {
+        int i = slot * 4;
+        cellBounds[i] = cellX(e.getxPos());
+        cellBounds[i + 1] = cellY(e.getyPos());
+        cellBounds[i + 2] = cellX(e.getxPos() + e.getSize() - 1);
+        cellBounds[i + 3] = cellY(e.getyPos() + e.getSize() - 1);
+    }
+
+    private void addToCells(int slot) {
+        int i = slot * 4;
+        for (int cy = cellBounds[i + 1]; cy <= cellBounds[i + 3]; cy++) {
+            for (int cx = cellBounds[i]; cx <= cellBounds[i + 2]; cx++) {
+                int cell = cy * cellsPerRow + cx;
+                int[] bucket = buckets[cell];
+                if (bucket == null) {
+                    bucket = new int[4];
+                    buckets[cell] = bucket;
+                } else if (bucketSizes[cell] == bucket.length) {
+                    int[] newBucket = new int[bucket.length * 2];
+                    System.arraycopy(bucket, 0, newBucket, 0, bucket.length);
+                    bucket = newBucket;
+                    buckets[cell] = bucket;
+                }
+                bucket[bucketSizes[cell]++] = slot;
+            }
+        }
+    }
+
+    private void removeFromCells(int slot) {
+        int i = slot * 4;
+        for (int cy = cellBounds[i + 1]; cy <= cellBounds[i + 3]; cy++) {
+            for (int cx = cellBounds[i]; cx <= cellBounds[i + 2]; cx++) {
+                int cell = cy * cellsPerRow + cx;
+                int[] bucket = buckets[cell];
+                for (int k = 0; k < bucketSizes[cell]; k++) {
+                    if (bucket[k] == slot) {
+                        bucket[k] = bucket[--bucketSizes[cell]];
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package game.utils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+//Planche de sprites découpée une seule fois au chargement : chaque image de l'animation est copiée dans sa propre image, compatible avec l'écran
+//Le rendu n'a plus qu'à lire une case du tableau, au lieu de créer une nouvelle vue (getSubimage) à chaque entité et à chaque frame
+//Les images sont rangées dans l'ordre de la planche : pour chaque direction, ses framesPerDirection images d'animation
+public class SpriteAtlas {
+    private final BufferedImage[] frames;
+    private final int framesPerDirection;
+
+    public SpriteAtlas(BufferedImage sheet, int frameSize, int framesPerDirection) {
+        this.framesPerDirection = framesPerDirection;
+        this.frames = new BufferedImage[sheet.getWidth() / frameSize];
+        for (int i = 0; i < frames.length; i++) {
+            BufferedImage frame = createCompatibleImage(frameSize, frameSize);
+            Graphics2D g = frame.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(sheet, 0, 0, frameSize, frameSize, i * frameSize, 0, (i + 1) * frameSize, frameSize, null);
+            g.dispose();
+            frames[i] = frame;
+        }
+    }
+
+    //Image correspondant à une direction et à une image de l'animation
+    public BufferedImage getFrame(int direction, int frame) {
+        return frames[direction * framesPerDirection + frame];
+    }
+
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    //Image transparente au format de l'écran (accélérée par la carte graphique lorsque c'est possible), ou au format ARGB en mode sans affichage
+    public static BufferedImage createCompatibleImage(int width, int height) {
+        return createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    //Même chose avec la transparence voulue (Transparency.OPAQUE pour une image qui recouvre tout, plus rapide à afficher)
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        }
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        return gc.createCompatibleImage(width, height, transparency);
+    }
+}
@@ -1,25 +1,24 @@
 package game.utils;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 //Classe regroupant différentes fonctions utiles
 public class Utils {
-    private static Map<Integer, Double> directionConverterMap = new HashMap<>();
-
-    static {
-        directionConverterMap.put(0, 0d);
-        directionConverterMap.put(1, Math.PI);
-        directionConverterMap.put(2, Math.PI / 2);
-        directionConverterMap.put(3, Math.PI * (3/2));
-    }
+    //Angle en radians correspondant à chaque "direction" d'une entité (l'indice du tableau)
+    private static final double[] directionConverterTable = {0d, Math.PI, Math.PI / 2, Math.PI * (3/2)};
 
     //Fonction pour obtenir la distance entre deux points
     public static double getDistance(double xA, double yA, double xB, double yB) {
         return Math.sqrt( Math.pow(xB - xA, 2) + Math.pow(yB - yA, 2) );
     }
 
+    //Fonction pour obtenir le carré de la distance entre deux points (suffisant pour comparer des distances, sans racine carrée ni calcul flottant)
+    public static int getSquaredDistance(int xA, int yA, int xB, int yB) {
+        int dx = xB - xA;
+        int dy = yB - yA;
+        return dx * dx + dy * dy;
+    }
+
     //Fonction pour obtenir l'angle formé entre deux points
     public static double getDirection(double xA, double yA, double xB, double yB) {
         return Math.atan2((yB - yA), (xB - xA));
@@ -33,25 +32,31 @@ public class Utils {
         return point;
     }
 
-    //Fonction pour convertir une "direction" d'une entité en un angle en radians grâce à la map créée plus haut
+    //Même chose que la fonction précédente, mais le point est écrit dans le tableau fourni
+    public static void getPointDistanceDirection(int x, int y, double distance, double direction, int[] point) {
+        point[0] = x + (int)(Math.cos(direction) * distance);
+        point[1] = y + (int)(Math.sin(direction) * distance);
+    }
+
+    //Fonction pour convertir une "direction" d'une entité en un angle en radians grâce au tableau créé plus haut
     public static double directionConverter(int spriteDirection) {
-        return directionConverterMap.get(spriteDirection);
+        return directionConverterTable[spriteDirection];
     }
 
-    //Fonction pour générer un entier entre 0 et n
-    public static int randomInt(int n) {
-        Random r = new Random();
+    //Les fonctions aléatoires utilisent le générateur de la partie (Game.getRandom), pour qu'une partie soit reproductible à partir de sa graine
+
+    //Fonction pour générer un entier entre 0 inclus et n exclu
+    public static int randomInt(SplittableRandom r, int n) {
         return r.nextInt(n);
     }
 
     //Fonction pour générer un entier entre x et y inclus
-    public static int randomInt(int min, int max) {
-        Random r = new Random();
-        return r.nextInt(max-min) + min;
+    public static int randomInt(SplittableRandom r, int min, int max) {
+        return r.nextInt(min, max + 1);
     }
 
     //Fonction pour générer un booléen aléatoire
-    public static boolean randomBool() {
-        return (randomInt(1) == 1);
+    public static boolean randomBool(SplittableRandom r) {
+        return r.nextBoolean();
     }
 }
@@ -0,0 +1,90 @@
+package game.utils;
+
+import game.entities.GhostHouse;
+import game.entities.Wall;
+
+import java.util.List;
+
+//Grille d'occupation des murs, construite une seule fois au chargement du niveau
+//Chaque case de la grille du niveau est décrite par un octet, et deux tables de sommes cumulées (summed-area tables) permettent de savoir en temps constant, et sans allocation, si un rectangle touche un mur
+public class WallGrid {
+    public static final byte EMPTY = 0;
+    public static final byte WALL = 1;
+    public static final byte GHOST_HOUSE = 2;
+
+    private final int cellsPerRow;
+    private final int cellsPerColumn;
+    private final int cellSize;
+    private final byte[] cells;
+
+    //Nombre de murs (maison des fantômes comprise) et de murs hors maison des fantômes dans le rectangle [0, x[ x [0, y[ de la grille
+    private final int[] wallSums;
+    private final int[] solidWallSums;
+
+    private long probeCount; //Nombre de tests effectués depuis la création de la grille (pour les statistiques de performance)
+
+    public WallGrid(List<Wall> walls, int cellsPerRow, int cellsPerColumn, int cellSize) {
+        this.cellsPerRow = cellsPerRow;
+        this.cellsPerColumn = cellsPerColumn;
+        this.cellSize = cellSize;
+        this.cells = new byte[cellsPerRow * cellsPerColumn];
+
+        for (Wall w : walls) {
+            int xx = w.getxPos() / cellSize;
+            int yy = w.getyPos() / cellSize;
+            cells[yy * cellsPerRow + xx] = (w instanceof GhostHouse) ? GHOST_HOUSE : WALL;
+        }
+
+        int stride = cellsPerRow + 1;
+        wallSums = new int[stride * (cellsPerColumn + 1)];
+        solidWallSums = new int[stride * (cellsPerColumn + 1)];
+        for (int yy = 0; yy < cellsPerColumn; yy++) {
+            for (int xx = 0; xx < cellsPerRow; xx++) {
+                byte cell = cells[yy * cellsPerRow + xx];
+                int i = (yy + 1) * stride + (xx + 1);
+                wallSums[i] = (cell != EMPTY ? 1 : 0) + wallSums[i - 1] + wallSums[i - stride] - wallSums[i - stride - 1];
+                solidWallSums[i] = (cell == WALL ? 1 : 0) + solidWallSums[i - 1] + solidWallSums[i - stride] - solidWallSums[i - stride - 1];
+            }
+        }
+    }
+
+    //Fonction pour savoir si le rectangle (x, y, width, height) intersecte un mur, avec la même sémantique que Rectangle.intersects (les bords qui se touchent ne comptent pas)
+    public boolean intersectsWall(int x, int y, int width, int height, boolean ignoreGhostHouses) {
+        probeCount++;
+        if (width <= 0 || height <= 0) return false;
+
+        //Cases de la grille recouvertes par le rectangle, limitées aux bords du niveau (il n'y a pas de mur en dehors)
+        int x0 = Math.max(Math.floorDiv(x, cellSize), 0);
+        int y0 = Math.max(Math.floorDiv(y, cellSize), 0);
+        int x1 = Math.min(Math.floorDiv(x + width - 1, cellSize), cellsPerRow - 1);
+        int y1 = Math.min(Math.floorDiv(y + height - 1, cellSize), cellsPerColumn - 1);
+        if (x0 > x1 || y0 > y1) return false;
+
+        int[] sums = ignoreGhostHouses ? solidWallSums : wallSums;
+        int stride = cellsPerRow + 1;
+        int count = sums[(y1 + 1) * stride + (x1 + 1)] - sums[y0 * stride + (x1 + 1)] - sums[(y1 + 1) * stride + x0] + sums[y0 * stride + x0];
+        return count > 0;
+    }
+
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+    //Contenu d'une case de la grille (EMPTY en dehors du niveau)
+    public byte getCell(int xx, int yy) {
+        if (xx < 0 || yy < 0 || xx >= cellsPerRow || yy >= cellsPerColumn) return EMPTY;
+        return cells[yy * cellsPerRow + xx];
+    }
+
+    public int getCellsPerRow() {
+        return cellsPerRow;
+    }
+
+    public int getCellsPerColumn() {
+        return cellsPerColumn;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+}
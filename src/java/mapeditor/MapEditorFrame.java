@@ -211,10 +211,11 @@ public class MapEditorFrame extends JFrame {
         // PacGum 자동 채우기
         manager.fillEmptySpacesWithPacGum();
 
-        // CSV 파일과 배경 이미지로 저장
+        // CSV 파일, 배경 이미지, 컴파일된 레벨로 저장
         try {
             mapeditor.model.EntityType[][] mapData = manager.getMapDataCopy();
-            String csvPath = mapeditor.utils.CsvMapWriter.saveMap(mapData, null);
+            String csvPath = mapeditor.utils.CsvMapWriter.saveMap(mapData, null, true);
+            String levelPath = mapeditor.utils.CsvMapWriter.getCompiledLevelPath(csvPath);
 
             // 이미지 경로 계산
             String fileName = new java.io.File(csvPath).getName();
@@ -224,7 +225,8 @@ public class MapEditorFrame extends JFrame {
             JOptionPane.showMessageDialog(this,
                 "맵이 성공적으로 저장되었습니다!\n\n" +
                 "CSV 파일: " + csvPath + "\n" +
-                "배경 이미지: " + imgPath + "\n\n" +
+                "배경 이미지: " + imgPath + "\n" +
+                "컴파일된 레벨: " + levelPath + "\n\n" +
                 "게임에서 이 맵을 사용하려면 Game.java에서\n" +
                 "\"level/" + fileName + "\"로 변경하세요.",
                 "저장 완료",
@@ -1,5 +1,7 @@
 package mapeditor.utils;
 
+import game.utils.LevelData;
+import game.utils.LevelFile;
 import mapeditor.model.EntityType;
 import mapeditor.model.MapData;
 import java.awt.*;
@@ -16,6 +18,8 @@ import javax.imageio.ImageIO;
  *
  * 기존 CsvReader와 호환되는 형식으로 저장
  * 구분자: 세미콜론 (;)
+ *
+ * 선택적으로 컴파일된 바이너리 레벨(.lvl, LevelFile 형식)도 함께 저장
  */
 public class CsvMapWriter {
 
@@ -39,6 +43,18 @@ public class CsvMapWriter {
      * @throws IOException 파일 저장 실패
      */
     public static String saveMap(EntityType[][] mapData, String filePath) throws IOException {
+        return saveMap(mapData, filePath, false);
+    }
+
+    /**
+     * 맵 데이터를 CSV 파일과 배경 이미지로 저장하고, 선택적으로 컴파일된 레벨도 저장
+     * @param mapData 저장할 맵 데이터 (논리적 28×31 그리드)
+     * @param filePath 저장 경로 (null이면 자동 생성)
+     * @param compileLevel true면 CSV 옆에 컴파일된 레벨(.lvl)도 저장 (게임에서 파싱 없이 로드)
+     * @return 저장된 CSV 파일 경로
+     * @throws IOException 파일 저장 실패
+     */
+    public static String saveMap(EntityType[][] mapData, String filePath, boolean compileLevel) throws IOException {
         if (filePath == null) {
             filePath = generateFilePath();
         }
@@ -64,9 +80,43 @@ public class CsvMapWriter {
         String imagePath = generateImagePath(filePath);
         saveBackgroundImage(expandedData, imagePath);
 
+        // 컴파일된 레벨 저장
+        if (compileLevel) {
+            saveCompiledLevel(expandedData, getCompiledLevelPath(filePath));
+        }
+
         return filePath;
     }
 
+    /**
+     * CSV 경로에 대응하는 컴파일된 레벨 경로 (같은 폴더, 확장자만 .lvl)
+     * @param csvPath CSV 파일 경로
+     * @return 컴파일된 레벨 파일 경로
+     */
+    public static String getCompiledLevelPath(String csvPath) {
+        int dot = csvPath.lastIndexOf('.');
+        String base = dot > csvPath.lastIndexOf(File.separatorChar) ? csvPath.substring(0, dot) : csvPath;
+        return base + LevelFile.EXTENSION;
+    }
+
+    /**
+     * 컴파일된 레벨 저장 (각 칸의 심볼을 1바이트 타일로 저장)
+     */
+    private static void saveCompiledLevel(EntityType[][] mapData, String levelPath) throws IOException {
+        int height = mapData.length;
+        int width = height > 0 ? mapData[0].length : 0;
+
+        byte[] tiles = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                EntityType entity = mapData[y][x];
+                tiles[y * width + x] = (byte) (entity != null ? entity.getSymbol() : ' ');
+            }
+        }
+
+        LevelFile.write(LevelData.fromTiles(width, height, tiles), new File(levelPath).toPath());
+    }
+
     /**
      * 논리적 그리드(28×31)를 CSV 그리드(56×62)로 확장
      */
@@ -0,0 +1,143 @@
+package game.entities;
+
+import game.entities.ghosts.*;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Tests du registre des entités : retrait par échange avec la dernière entité du tableau (via Entity.destroy), index tenus à jour, et vues toujours cohérentes
+public class EntityRegistryTest {
+    @Test
+    public void testRemoveFirstMiddleAndLastWalls() {
+        EntityRegistry registry = new EntityRegistry();
+        List<Wall> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) { //Plus que la capacité initiale : le tableau est agrandi
+            Wall wall = new Wall(i * 8, 0);
+            registry.addWall(wall);
+            expected.add(wall);
+        }
+        check(registry, expected, new ArrayList<>());
+
+        destroy(expected, 0);
+        check(registry, expected, new ArrayList<>());
+        destroy(expected, expected.size() / 2);
+        check(registry, expected, new ArrayList<>());
+        destroy(expected, expected.size() - 1);
+        check(registry, expected, new ArrayList<>());
+
+        //Jusqu'au dernier mur
+        while (!expected.isEmpty()) {
+            destroy(expected, expected.size() / 3);
+            check(registry, expected, new ArrayList<>());
+        }
+    }
+
+    @Test
+    public void testRemoveFirstMiddleAndLastGhosts() {
+        EntityRegistry registry = new EntityRegistry();
+        Pacman pacman = new Pacman(0, 0);
+        registry.setPacman(pacman);
+        List<Ghost> expected = new ArrayList<>();
+        for (int i = 0; i < 6; i++) { //Plus que la capacité initiale : le tableau est agrandi
+            Ghost ghost = i % 2 == 0 ? new Blinky(i * 32, 0) : new Clyde(i * 32, 0);
+            registry.addGhost(ghost);
+            expected.add(ghost);
+        }
+        check(registry, new ArrayList<>(), expected);
+
+        destroy(expected, expected.size() - 1);
+        check(registry, new ArrayList<>(), expected);
+        destroy(expected, 0);
+        check(registry, new ArrayList<>(), expected);
+        destroy(expected, 1);
+        check(registry, new ArrayList<>(), expected);
+        assertSame(pacman, registry.getMovingEntity(0));
+        assertEquals(expected.size() + 1, registry.getMovingEntities().size());
+
+        pacman.destroy();
+        assertNull(registry.getPacman());
+        assertEquals(expected, registry.getMovingEntities());
+    }
+
+    @Test
+    public void testRemoveIsIdempotentAndLimitedToItsRegistry() {
+        EntityRegistry registry = new EntityRegistry();
+        EntityRegistry other = new EntityRegistry();
+        Wall a = new Wall(0, 0);
+        Wall b = new Wall(8, 0);
+        registry.addWall(a);
+        registry.addWall(b);
+        other.remove(a); //a n'appartient pas à l'autre registre
+        assertEquals(2, registry.getWallCount());
+
+        a.destroy();
+        a.destroy();
+        registry.remove(a);
+        assertEquals(1, registry.getWallCount());
+        assertSame(b, registry.getWall(0));
+        assertEquals(0, b.registryIndex);
+        assertTrue(a.isDestroyed());
+        assertNull(a.registry);
+    }
+
+    @Test
+    public void testAddingToAnotherRegistryMovesTheEntity() {
+        EntityRegistry first = new EntityRegistry();
+        EntityRegistry second = new EntityRegistry();
+        Wall a = new Wall(0, 0);
+        Wall b = new Wall(8, 0);
+        first.addWall(a);
+        first.addWall(b);
+        second.addWall(a);
+        assertEquals(1, first.getWallCount());
+        assertSame(b, first.getWall(0));
+        assertEquals(0, b.registryIndex);
+        assertSame(second, a.registry);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRemovedSlotIsOutOfBounds() {
+        EntityRegistry registry = new EntityRegistry();
+        Wall wall = new Wall(0, 0);
+        registry.addWall(wall);
+        wall.destroy();
+        registry.getWall(0);
+    }
+
+    //Retrait de la i-ème entité : la dernière prend sa place, comme dans le registre
+    private static <T extends Entity> void destroy(List<T> expected, int i) {
+        T removed = expected.get(i);
+        T last = expected.remove(expected.size() - 1);
+        if (last != removed) expected.set(i, last);
+        removed.destroy();
+        assertTrue(removed.isDestroyed());
+        assertNull(removed.registry);
+        assertEquals(-1, removed.registryIndex);
+    }
+
+    //Tableaux denses, index de chaque entité et vues en lecture seule
+    private static void check(EntityRegistry registry, List<Wall> walls, List<Ghost> ghosts) {
+        assertEquals(walls.size(), registry.getWallCount());
+        for (int i = 0; i < walls.size(); i++) {
+            assertSame(walls.get(i), registry.getWall(i));
+            assertEquals(i, walls.get(i).registryIndex);
+            assertSame(registry, walls.get(i).registry);
+        }
+        assertEquals(walls, registry.getWalls());
+
+        assertEquals(ghosts.size(), registry.getGhostCount());
+        for (int i = 0; i < ghosts.size(); i++) {
+            assertSame(ghosts.get(i), registry.getGhost(i));
+            assertEquals(i, ((Entity) ghosts.get(i)).registryIndex);
+            assertSame(registry, ((Entity) ghosts.get(i)).registry);
+        }
+        assertEquals(ghosts, registry.getGhosts());
+        try {
+            registry.getWalls().add(null);
+            fail("Les vues sont en lecture seule");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package game.entities;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.awt.Rectangle;
+
+//Tests de la grille des PacGums : la recherche par case doit trouver les mêmes PacGums que l'ancien test sur les hitboxes (un rectangle par PacGum, parcourues colonne par colonne)
+public class PelletGridTest {
+    private static final int CELLS_PER_ROW = 12;
+    private static final int CELLS_PER_COLUMN = 10;
+    private static final int CELL_SIZE = 8;
+
+    @Test
+    public void testFindPacGumMatchesHitboxes() {
+        PelletGrid pellets = grid();
+        for (int py = -24; py < CELLS_PER_COLUMN * CELL_SIZE + 24; py++) {
+            for (int px = -24; px < CELLS_PER_ROW * CELL_SIZE + 24; px++) {
+                int expected = -1;
+                for (int xx = 0; xx < CELLS_PER_ROW && expected == -1; xx++) {
+                    for (int yy = 0; yy < CELLS_PER_COLUMN && expected == -1; yy++) {
+                        Rectangle hitbox = new Rectangle(xx * CELL_SIZE + PelletGrid.PAC_GUM_OFFSET, yy * CELL_SIZE + PelletGrid.PAC_GUM_OFFSET, PelletGrid.PAC_GUM_SIZE, PelletGrid.PAC_GUM_SIZE);
+                        if (pellets.hasPacGum(xx, yy) && hitbox.contains(px, py)) expected = pellets.getTile(xx, yy);
+                    }
+                }
+                assertEquals("point (" + px + ", " + py + ")", expected, pellets.findPacGum(px, py));
+            }
+        }
+    }
+
+    @Test
+    public void testFindSuperPacGumMatchesHitboxes() {
+        //Les hitboxes des SuperPacGums (16 pixels) débordent sur les cases voisines : un point peut être dans plusieurs hitboxes, la première dans l'ordre colonne par colonne est gardée
+        PelletGrid pellets = grid();
+        for (int py = -24; py < CELLS_PER_COLUMN * CELL_SIZE + 24; py++) {
+            for (int px = -24; px < CELLS_PER_ROW * CELL_SIZE + 24; px++) {
+                int expected = -1;
+                for (int xx = 0; xx < CELLS_PER_ROW && expected == -1; xx++) {
+                    for (int yy = 0; yy < CELLS_PER_COLUMN && expected == -1; yy++) {
+                        Rectangle hitbox = new Rectangle(xx * CELL_SIZE, yy * CELL_SIZE, PelletGrid.SUPER_PAC_GUM_SIZE, PelletGrid.SUPER_PAC_GUM_SIZE);
+                        if (pellets.hasSuperPacGum(xx, yy) && hitbox.contains(px, py)) expected = pellets.getTile(xx, yy);
+                    }
+                }
+                assertEquals("point (" + px + ", " + py + ")", expected, pellets.findSuperPacGum(px, py));
+            }
+        }
+    }
+
+    @Test
+    public void testEatenPelletsAreNotFound() {
+        PelletGrid pellets = grid();
+        int pacGum = pellets.findPacGum(PelletGrid.PAC_GUM_OFFSET, PelletGrid.PAC_GUM_OFFSET);
+        assertEquals(pellets.getTile(0, 0), pacGum);
+        pellets.eatPacGum(0, 0);
+        assertEquals(-1, pellets.findPacGum(PelletGrid.PAC_GUM_OFFSET, PelletGrid.PAC_GUM_OFFSET));
+        assertFalse(pellets.hasPacGum(0, 0));
+    }
+
+    @Test
+    public void testRemainingCountAndCleared() {
+        PelletGrid pellets = new PelletGrid(4, 1, CELL_SIZE);
+        pellets.addPacGum(0, 0);
+        pellets.addPacGum(0, 0);
+        pellets.addSuperPacGum(3, 0);
+        assertEquals(2, pellets.getRemainingCount());
+        assertFalse(pellets.isCleared());
+        pellets.eatPacGum(0, 0);
+        pellets.eatPacGum(0, 0);
+        assertEquals(1, pellets.getRemainingCount());
+        pellets.eatSuperPacGum(3, 0);
+        assertTrue(pellets.isCleared());
+    }
+
+    //PacGums sur une case sur deux en damier, SuperPacGums en blocs de cases voisines (hitboxes qui se chevauchent) et isolées
+    private static PelletGrid grid() {
+        PelletGrid pellets = new PelletGrid(CELLS_PER_ROW, CELLS_PER_COLUMN, CELL_SIZE);
+        for (int xx = 0; xx < CELLS_PER_ROW; xx++) {
+            for (int yy = 0; yy < CELLS_PER_COLUMN; yy++) {
+                if ((xx + yy) % 2 == 0) pellets.addPacGum(xx, yy);
+            }
+        }
+        pellets.addSuperPacGum(2, 2);
+        pellets.addSuperPacGum(3, 2);
+        pellets.addSuperPacGum(2, 3);
+        pellets.addSuperPacGum(3, 3);
+        pellets.addSuperPacGum(7, 5);
+        pellets.addSuperPacGum(11, 9);
+        pellets.addSuperPacGum(0, 9);
+        return pellets;
+    }
+}
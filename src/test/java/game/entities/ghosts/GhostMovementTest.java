@@ -0,0 +1,123 @@
+package game.entities.ghosts;
+
+import game.Game;
+import game.entities.MovingEntity;
+import game.ghostStrategies.BlinkyStrategy;
+import game.managers.DifficultyLevel;
+import game.managers.DifficultyManager;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static game.ghostStates.GhostStateMachine.*;
+
+//Tests du déplacement des fantômes en virgule fixe, à chaque niveau de difficulté : le fantôme s'arrête sur chaque case traversée, et les événements de sortie et d'entrée de la maison sont toujours envoyés
+public class GhostMovementTest {
+    private static final int TILE = 8;
+    private static final int MAX_TICKS = 60 * 60;
+
+    //Fantôme qui vérifie chacun de ses arrêts sur une case, et compte les entrées et sorties de la maison
+    private static class TestGhost extends Ghost {
+        int stops = 0;
+        int exits = 0;
+        int entries = 0;
+        private int lastX;
+        private int lastY;
+
+        TestGhost(int xPos, int yPos) {
+            super(xPos, yPos, "blinky.png");
+            setStrategy(new BlinkyStrategy(this));
+            lastX = xPos;
+            lastY = yPos;
+        }
+
+        @Override
+        protected void onTileReached() {
+            assertTrue("arrêt hors de la grille en (" + xFix + ", " + yFix + ")", onTheGrid());
+            //D'un arrêt au suivant, le fantôme n'avance que d'une case (aucune case n'est sautée)
+            int step = wrappedDistance(xPos - lastX, game.getWidth()) + wrappedDistance(yPos - lastY, game.getHeight());
+            assertTrue("déplacement de " + step + " pixels entre deux arrêts", step == 0 || step == TILE);
+            lastX = xPos;
+            lastY = yPos;
+            stops++;
+            super.onTileReached();
+        }
+
+        @Override
+        public boolean handleEvent(byte event) {
+            boolean handled = super.handleEvent(event);
+            if (handled && event == OUTSIDE_HOUSE) {
+                assertEquals(HOUSE_DOOR_X, xPos);
+                assertEquals(HOUSE_DOOR_Y, yPos);
+                exits++;
+            } else if (handled && event == INSIDE_HOUSE) {
+                assertEquals(HOUSE_DOOR_X, xPos);
+                assertEquals(HOUSE_CENTER_Y, yPos);
+                entries++;
+            }
+            return handled;
+        }
+
+        //Distance sur un axe, en tenant compte du passage d'un bord à l'autre de la zone de jeu
+        private int wrappedDistance(int d, int length) {
+            d = Math.abs(d);
+            return Math.min(d, Math.abs(d - (length + size)));
+        }
+    }
+
+    @Test
+    public void testGhostStopsOnEveryTileAtEachDifficulty() {
+        for (DifficultyLevel level : DifficultyManager.getInstance().getAllLevels()) {
+            Game game = new Game();
+            game.setFirstInput(true);
+            game.setDifficulty(level);
+            TestGhost ghost = new TestGhost(Ghost.HOUSE_DOOR_X, Ghost.HOUSE_CENTER_Y);
+            ghost.setGame(game);
+            int distance = ghost.getSpd() * level.getGhostSpeedMultiplierFixed();
+
+            //Sortie de la maison
+            int ticks = runUntil(ghost, distance, () -> ghost.getStateId() != HOUSE);
+            assertEquals(level.toString(), 1, ghost.exits);
+            assertEquals(level.toString(), SCATTER, ghost.getStateId());
+
+            //Le fantôme parcourt le labyrinthe, puis il est mangé et rentre dans la maison
+            for (int i = 0; i < 300; i++) step(ghost, distance);
+            ticks += 300;
+            ghost.switchEatenMode();
+            ticks += runUntil(ghost, distance, () -> ghost.getStateId() == HOUSE);
+            assertEquals(level.toString(), 1, ghost.entries);
+
+            //Puis il en ressort
+            ticks += runUntil(ghost, distance, () -> ghost.getStateId() != HOUSE);
+            assertEquals(level.toString(), 2, ghost.exits);
+
+            //Un arrêt par case parcourue, et au moins un par tick au début de chaque déplacement
+            assertTrue(level.toString(), ghost.stops >= (long) ticks * distance / (TILE * MovingEntity.FIXED_ONE));
+        }
+    }
+
+    private interface Condition {
+        boolean test();
+    }
+
+    private static int runUntil(TestGhost ghost, int distance, Condition condition) {
+        int ticks = 0;
+        while (!condition.test()) {
+            assertTrue("le fantôme n'a pas atteint son but en " + MAX_TICKS + " ticks", ticks < MAX_TICKS);
+            step(ghost, distance);
+            ticks++;
+        }
+        return ticks;
+    }
+
+    //Un tick : le fantôme parcourt exactement la distance de son niveau de difficulté, en ligne droite ou avec un virage sur une case
+    private static void step(TestGhost ghost, int distance) {
+        int x = ghost.getxFix();
+        int y = ghost.getyFix();
+        ghost.update();
+        int width = (ghost.getGame().getWidth() + ghost.getSize()) << MovingEntity.FIXED_SHIFT;
+        int height = (ghost.getGame().getHeight() + ghost.getSize()) << MovingEntity.FIXED_SHIFT;
+        int dx = Math.abs(ghost.getxFix() - x);
+        int dy = Math.abs(ghost.getyFix() - y);
+        assertEquals(distance, Math.min(dx, Math.abs(dx - width)) + Math.min(dy, Math.abs(dy - height)));
+    }
+}
@@ -0,0 +1,128 @@
+package game.events;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Tests du bus d'événements : chaque événement publié est transmis une seule fois, dans l'ordre, et les lots réutilisés repartent vides
+public class EventBusTest {
+    //Abonné qui garde chaque événement reçu sous la forme "tick:type:x:y"
+    private static class Recorder implements GameEventListener {
+        final List<String> events = new ArrayList<>();
+        int drains = 0;
+
+        @Override
+        public void onEvent(byte type, long tick, int x, int y) {
+            events.add(tick + ":" + type + ":" + x + ":" + y);
+        }
+
+        @Override
+        public void onEventsDrained() {
+            drains++;
+        }
+    }
+
+    @Test
+    public void testEventsAreDrainedOnceInOrderAcrossTicks() {
+        EventBus bus = new EventBus();
+        Recorder recorder = new Recorder();
+        bus.subscribe(recorder);
+        List<String> expected = new ArrayList<>();
+        int drains = 0;
+
+        for (int tick = 0; tick < 50; tick++) {
+            assertEquals(tick, bus.getTick());
+            int count = tick % 7 == 0 ? 0 : tick % 5 * 9; //Ticks sans événement, et lots plus grands que leur capacité initiale
+            for (int i = 0; i < count; i++) {
+                byte type = (byte) (i % 4);
+                bus.post(type, tick, i);
+                expected.add(tick + ":" + type + ":" + tick + ":" + i);
+            }
+            bus.endTick();
+
+            //Le bus est vidé tous les trois ticks : plusieurs lots attendent entre deux vidages
+            if (tick % 3 == 2) {
+                int before = recorder.events.size();
+                int drained = bus.drain();
+                assertEquals(expected.size() - before, drained);
+                if (drained > 0) drains++;
+                assertEquals(expected, recorder.events);
+                assertEquals(drains, recorder.drains);
+            }
+        }
+        int before = recorder.events.size();
+        if (bus.drain() > 0) drains++;
+        assertEquals(expected, recorder.events);
+        assertEquals(drains, recorder.drains);
+        assertTrue(recorder.events.size() > before);
+
+        //Rien n'est transmis deux fois
+        assertEquals(0, bus.drain());
+        assertEquals(expected, recorder.events);
+        assertEquals(drains, recorder.drains);
+    }
+
+    @Test
+    public void testRecycledBatchesComeBackEmpty() {
+        EventBus bus = new EventBus();
+        Recorder recorder = new Recorder();
+        bus.subscribe(recorder);
+
+        EventBatch first = bus.getCurrentBatch();
+        for (int i = 0; i < 40; i++) {
+            bus.post(GameEvent.PELLET_EATEN, i, i);
+        }
+        bus.endTick();
+        assertNotSame(first, bus.getCurrentBatch());
+        assertEquals(40, bus.drain()); //Le lot vidé retourne dans la réserve
+
+        bus.post(GameEvent.DEATH, 1, 2);
+        bus.endTick();
+        //Le lot suivant est pris dans la réserve : c'est le premier lot, vide et renuméroté
+        EventBatch recycled = bus.getCurrentBatch();
+        assertSame(first, recycled);
+        assertEquals(0, recycled.size());
+        assertEquals(2, recycled.getTick());
+
+        recorder.events.clear();
+        bus.post(GameEvent.SUPER_EATEN, 3, 4);
+        bus.endTick();
+        assertEquals(2, bus.drain());
+        assertEquals(List.of("1:" + GameEvent.DEATH + ":1:2", "2:" + GameEvent.SUPER_EATEN + ":3:4"), recorder.events);
+
+        //Les deux lots sont de nouveau dans la réserve, puis réutilisés à tour de rôle, toujours vides
+        for (int tick = 3; tick < 10; tick++) {
+            EventBatch batch = bus.getCurrentBatch();
+            assertEquals(0, batch.size());
+            assertEquals(tick, batch.getTick());
+            bus.post(GameEvent.GHOST_EATEN, tick, 0);
+            bus.endTick();
+            assertEquals(1, bus.drain());
+        }
+    }
+
+    @Test
+    public void testEventsWithoutListenerAreDropped() {
+        EventBus bus = new EventBus();
+        bus.post(GameEvent.PELLET_EATEN, 0, 0);
+        bus.endTick();
+        assertEquals(0, bus.getCurrentBatch().size());
+
+        //Un abonné arrivé après coup ne reçoit pas les événements des ticks précédents
+        Recorder recorder = new Recorder();
+        bus.subscribe(recorder);
+        assertEquals(0, bus.drain());
+        assertEquals(0, recorder.drains);
+
+        bus.post(GameEvent.GHOST_EATEN, 5, 6);
+        bus.endTick();
+        bus.unsubscribe(recorder);
+        bus.post(GameEvent.DEATH, 7, 8);
+        bus.endTick();
+        //Le lot publié avant le désabonnement est transmis aux abonnés présents au moment du vidage
+        assertEquals(1, bus.drain());
+        assertTrue(recorder.events.isEmpty());
+    }
+}
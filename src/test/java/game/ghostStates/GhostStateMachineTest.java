@@ -0,0 +1,88 @@
+package game.ghostStates;
+
+import game.entities.ghosts.Ghost;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static game.ghostStates.GhostStateMachine.*;
+
+//Tests de la table des transitions des fantômes : chaque couple (état, événement) donne le même état que les anciennes classes d'état (ChaseMode, ScatterMode...), et chaque état a les mêmes propriétés
+public class GhostStateMachineTest {
+    //Prochain état pour chaque état (lignes) et chaque événement (colonnes, dans l'ordre des numéros d'événements), tel que le donnaient les anciennes classes
+    private static final byte[][] EXPECTED = {
+            //SUPER_PAC_GUM_EATEN, MODE_TIMER_OVER, FRIGHTENED_TIMER_OVER, GHOST_EATEN, OUTSIDE_HOUSE, INSIDE_HOUSE
+            {NONE, NONE, NONE, NONE, RESUME, NONE}, //HouseMode.outsideHouse
+            {FRIGHTENED, SCATTER, NONE, NONE, NONE, NONE}, //ChaseMode.superPacGumEaten, ChaseMode.timerModeOver
+            {FRIGHTENED, CHASE, NONE, NONE, NONE, NONE}, //ScatterMode.superPacGumEaten, ScatterMode.timerModeOver
+            {NONE, NONE, RESUME, EATEN, NONE, NONE}, //FrightenedMode.timerFrightenedModeOver, FrightenedMode.eaten
+            {NONE, NONE, NONE, NONE, NONE, HOUSE} //EatenMode.insideHouse
+    };
+
+    //Comportement du fantôme (ancienne classe d'état) pour chaque état
+    private static final Class<?>[] BEHAVIOURS = {HouseMode.class, ChaseMode.class, ScatterMode.class, FrightenedMode.class, EatenMode.class};
+
+    //Fantôme dont on peut fixer l'état et la phase (poursuite ou dispersion)
+    private static class TestGhost extends Ghost {
+        TestGhost(byte state, boolean chasing) {
+            super(0, 0, "blinky.png");
+            this.state = state;
+            this.isChasing = chasing;
+            this.frightenedTimer = 100;
+        }
+
+        int getFrightenedTimer() {
+            return frightenedTimer;
+        }
+    }
+
+    @Test
+    public void testTransitionTable() {
+        assertEquals(STATE_COUNT, EXPECTED.length);
+        for (byte state = 0; state < STATE_COUNT; state++) {
+            assertEquals(EVENT_COUNT, EXPECTED[state].length);
+            for (byte event = 0; event < EVENT_COUNT; event++) {
+                assertEquals(getStateName(state) + ", événement " + event, EXPECTED[state][event], getTransition(state, event));
+            }
+        }
+    }
+
+    @Test
+    public void testGhostFollowsTheTable() {
+        for (boolean chasing : new boolean[]{false, true}) {
+            for (byte state = 0; state < STATE_COUNT; state++) {
+                for (byte event = 0; event < EVENT_COUNT; event++) {
+                    TestGhost ghost = new TestGhost(state, chasing);
+                    byte next = EXPECTED[state][event];
+                    //RESUME : retour à la poursuite ou à la dispersion, selon la phase en cours (Ghost.switchChaseModeOrScatterMode)
+                    byte expected = next == NONE ? state : next == RESUME ? (chasing ? CHASE : SCATTER) : next;
+                    String pair = getStateName(state) + ", événement " + event;
+
+                    assertEquals(pair, next != NONE, ghost.handleEvent(event));
+                    assertEquals(pair, expected, ghost.getStateId());
+                    assertSame(pair, BEHAVIOURS[expected], ghost.getState().getClass());
+                    //Comme Ghost.switchFrightenedMode, l'entrée dans l'état effrayé remet son timer à zéro
+                    assertEquals(pair, next == FRIGHTENED ? 0 : 100, ghost.getFrightenedTimer());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStateFlags() {
+        //Anciennes classes : le timer de poursuite/dispersion avance en ChaseMode et ScatterMode, celui de l'état effrayé en FrightenedMode
+        //Au contact de Pacman, un fantôme en FrightenedMode est mangé, un fantôme en EatenMode ne fait rien, les autres tuent Pacman
+        assertFlags(HOUSE, false, false, false, false);
+        assertFlags(CHASE, true, false, false, false);
+        assertFlags(SCATTER, true, false, false, false);
+        assertFlags(FRIGHTENED, false, true, true, false);
+        assertFlags(EATEN, false, false, false, true);
+    }
+
+    private static void assertFlags(byte state, boolean modeTimer, boolean frightenedTimer, boolean vulnerable, boolean harmless) {
+        String name = getStateName(state);
+        assertEquals(name, modeTimer, hasFlag(state, MODE_TIMER));
+        assertEquals(name, frightenedTimer, hasFlag(state, FRIGHTENED_TIMER));
+        assertEquals(name, vulnerable, hasFlag(state, VULNERABLE));
+        assertEquals(name, harmless, hasFlag(state, HARMLESS));
+    }
+}
@@ -0,0 +1,107 @@
+package game.simulation;
+
+import game.Game;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+//Tests des enregistrements de partie : rejeu identique après écriture et relecture, et refus des fichiers invalides
+public class ReplayTest {
+    private static final int TICKS = 3000;
+
+    @Test
+    public void testRoundTripReplaysSameGame() throws IOException {
+        for (long seed : new long[]{1, 42, 12345}) {
+            Game game = new Game();
+            game.setSeed(seed);
+            Simulation original = new Simulation(game);
+            original.setInputPolicy(new RandomInputPolicy(seed));
+            Replay recording = original.startRecording();
+            original.run(TICKS);
+
+            Replay replay = Replay.read(new ByteArrayInputStream(toBytes(recording)));
+            assertEquals(seed, replay.getSeed());
+            assertEquals(original.getTick(), replay.getTickCount());
+
+            Simulation replayed = replay.play(new Game());
+            assertEquals(original.getTick(), replayed.getTick());
+            assertEquals(original.getScore(), replayed.getScore());
+            assertEquals(original.isGameOver(), replayed.isGameOver());
+            assertEquals(original.getEvents().toString(), replayed.getEvents().toString());
+        }
+    }
+
+    @Test
+    public void testRoundTripKeepsInputs() throws IOException {
+        Replay recording = new Replay(7);
+        int[] inputs = {0, 0, 0, 1, 1, 2, 0, 4, 4, 4, 4, 8};
+        for (int i = 0; i < 1000; i++) {
+            recording.record(inputs[i % inputs.length]);
+        }
+        Replay replay = Replay.read(new ByteArrayInputStream(toBytes(recording)));
+        assertEquals(1000, replay.getTickCount());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(inputs[i % inputs.length], replay.getInputBits(i, null));
+        }
+        assertEquals(0, replay.getInputBits(1000, null));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRejectsWrongMagic() throws IOException {
+        byte[] bytes = toBytes(recording());
+        bytes[0] = 'X';
+        Replay.read(new ByteArrayInputStream(bytes));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRejectsWrongVersion() throws IOException {
+        byte[] bytes = toBytes(recording());
+        bytes[4]++;
+        Replay.read(new ByteArrayInputStream(bytes));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRejectsTruncatedStream() throws IOException {
+        byte[] bytes = toBytes(recording());
+        Replay.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRejectsHugeTickCount() throws IOException {
+        //En-tête annonçant 2^31 - 1 ticks, sans aucune série : le fichier doit être refusé sans allouer de tableau de cette taille
+        Replay.read(new ByteArrayInputStream(header(Integer.MAX_VALUE)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRejectsTickCountWithoutRuns() throws IOException {
+        //Nombre de ticks plausible, mais les séries annoncées manquent
+        Replay.read(new ByteArrayInputStream(header(1000000)));
+    }
+
+    private static Replay recording() {
+        Replay recording = new Replay(3);
+        for (int i = 0; i < 100; i++) {
+            recording.record(i / 10);
+        }
+        return recording;
+    }
+
+    //En-tête valide (signature, version et graine d'un vrai enregistrement) suivi du nombre de ticks donné, sans aucune série
+    private static byte[] header(int tickCount) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(toBytes(recording()), 0, 13);
+        new DataOutputStream(bytes).writeInt(tickCount);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] toBytes(Replay replay) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        replay.write(out);
+        return out.toByteArray();
+    }
+}
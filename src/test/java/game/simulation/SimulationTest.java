@@ -0,0 +1,44 @@
+package game.simulation;
+
+import game.Game;
+import game.entities.PelletGrid;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+//Tests de la fin de partie dans une simulation sans fenêtre
+public class SimulationTest {
+    @Test
+    public void testSimulationStopsWhenLevelIsCleared() {
+        Simulation simulation = new Simulation();
+        simulation.setInputPolicy(new RandomInputPolicy(1));
+        simulation.run(10);
+        Game game = simulation.getGame();
+        assertFalse(game.isFinished());
+
+        //Toutes les PacGums et SuperPacGums restantes disparaissent
+        PelletGrid pellets = game.getPellets();
+        for (int tile = pellets.nextPacGum(0); tile >= 0; tile = pellets.nextPacGum(tile + 1)) {
+            pellets.eatPacGum(pellets.getColumn(tile), pellets.getRow(tile));
+        }
+        for (int tile = pellets.nextSuperPacGum(0); tile >= 0; tile = pellets.nextSuperPacGum(tile + 1)) {
+            pellets.eatSuperPacGum(pellets.getColumn(tile), pellets.getRow(tile));
+        }
+
+        assertTrue(simulation.isLevelCleared());
+        assertTrue(game.isFinished());
+        assertFalse(simulation.isGameOver());
+        int tick = simulation.getTick();
+        assertFalse(simulation.step());
+        assertEquals(tick, simulation.getTick());
+    }
+
+    @Test
+    public void testSimulationStopsAtGameOver() {
+        Simulation simulation = new Simulation();
+        simulation.getGame().setSeed(1);
+        simulation.setInputPolicy(new RandomInputPolicy(1));
+        simulation.run(100000);
+        assertTrue(simulation.isGameOver());
+        assertFalse(simulation.step());
+    }
+}
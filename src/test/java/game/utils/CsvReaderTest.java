@@ -0,0 +1,158 @@
+package game.utils;
+
+import game.Game;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+//Tests de la lecture des niveaux : la grille lue octet par octet (readLevel) doit être celle obtenue avec la lecture générique (parseCsv)
+public class CsvReaderTest {
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final CsvReader reader = new CsvReader();
+
+    @Test
+    public void testLfLines() throws IOException {
+        LevelData level = checkAgainstParseCsv(bytes("x;x;x\nx;.;o\nx;P;x\n"));
+        assertEquals(3, level.getWidth());
+        assertEquals(3, level.getHeight());
+        assertEquals(0, level.getPaddedRowCount());
+    }
+
+    @Test
+    public void testCrlfLines() throws IOException {
+        checkAgainstParseCsv(bytes("x;x;x\r\nx;.;o\r\nx;b;x\r\n"));
+    }
+
+    @Test
+    public void testNoFinalNewline() throws IOException {
+        checkAgainstParseCsv(bytes("x;x\r\n.;o"));
+    }
+
+    @Test
+    public void testBom() throws IOException {
+        //parseCsv décode le fichier avec le jeu de caractères de la plate-forme : la marque d'ordre des octets n'y est pas retirée de façon fiable
+        //On vérifie donc que la marque ne change rien à la grille lue, celle sans marque étant comparée à parseCsv
+        byte[] content = bytes("x;.\r\no;x\r\n");
+        LevelData expected = checkAgainstParseCsv(content);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(BOM);
+        out.write(content);
+        LevelData level = reader.readLevel(write(out.toByteArray()).toUri());
+        assertEquals(expected.getWidth(), level.getWidth());
+        assertEquals(expected.getHeight(), level.getHeight());
+        for (int r = 0; r < level.getHeight(); r++) {
+            for (int c = 0; c < level.getWidth(); c++) {
+                assertEquals(expected.getTile(c, r), level.getTile(c, r));
+            }
+        }
+    }
+
+    @Test
+    public void testMultiCharacterAndEmptyCells() throws IOException {
+        checkAgainstParseCsv(bytes("xx;;.\n;o;\nx;;x\n"));
+    }
+
+    @Test
+    public void testRaggedRowsArePaddedAndCounted() throws IOException {
+        LevelData level = checkAgainstParseCsv(bytes("x;x;x;x\nx;.\nx;.;o\nx;x;x;x\n"));
+        assertEquals(4, level.getWidth());
+        assertEquals(2, level.getPaddedRowCount());
+        assertEquals(LevelData.EMPTY, level.getTile(3, 1));
+    }
+
+    @Test
+    public void testBlankInteriorLineIsARowOfEmptyTiles() throws IOException {
+        LevelData level = checkAgainstParseCsv(bytes("x;x;x\r\n\r\nx;.;x\r\n\nx;x;x\r\n"));
+        assertEquals(5, level.getHeight());
+        assertEquals(2, level.getPaddedRowCount());
+        assertEquals(LevelData.EMPTY, level.getTile(0, 1));
+        assertEquals(LevelData.PAC_GUM, level.getTile(1, 2));
+        assertEquals(LevelData.WALL, level.getTile(0, 4));
+    }
+
+    @Test
+    public void testBlankLeadingLineIsARowOfEmptyTiles() throws IOException {
+        LevelData level = checkAgainstParseCsv(bytes("\nx;x\n.;.\n"));
+        assertEquals(3, level.getHeight());
+        assertEquals(LevelData.EMPTY, level.getTile(0, 0));
+    }
+
+    @Test
+    public void testTrailingBlankLinesAreIgnored() throws IOException {
+        LevelData level = reader.readLevel(write(bytes("x;x\n.;.\n\n\r\n")).toUri());
+        assertEquals(2, level.getHeight());
+        assertEquals(0, level.getPaddedRowCount());
+    }
+
+    @Test
+    public void testSpawnsAreMovedToTheSpawnTable() throws IOException {
+        LevelData level = checkAgainstParseCsv(bytes("x;P;x\nb;.;c\n"));
+        assertEquals(3, level.getSpawnCount());
+        assertEquals(LevelData.BLINKY, level.getSpawnType(0));
+        assertEquals(LevelData.PACMAN, level.getSpawnType(1));
+        assertEquals(LevelData.CLYDE, level.getSpawnType(2));
+    }
+
+    @Test
+    public void testDefaultLevel() throws Exception {
+        Path file = Paths.get(Game.getDefaultLevel());
+        checkAgainstParseCsv(Files.readAllBytes(file));
+    }
+
+    @Test(expected = IOException.class)
+    public void testEmptyLevel() throws IOException {
+        reader.readLevel(new ByteArrayInputStream(bytes("\n\r\n")), "vide");
+    }
+
+    //Le fichier est lu des deux façons ; avec parseCsv, une case est réduite à son premier caractère, les cases de départ sont vides, et les lignes trop courtes sont complétées par des cases vides
+    private LevelData checkAgainstParseCsv(byte[] content) throws IOException {
+        Path file = write(content);
+        LevelData level = reader.readLevel(file.toUri());
+        List<List<String>> rows = reader.parseCsv(file.toUri());
+
+        int width = 0;
+        for (List<String> row : rows) {
+            width = Math.max(width, row.size());
+        }
+        assertEquals(width, level.getWidth());
+        assertEquals(rows.size(), level.getHeight());
+        int spawns = 0;
+        for (int r = 0; r < rows.size(); r++) {
+            for (int c = 0; c < width; c++) {
+                String cell = c < rows.get(r).size() ? rows.get(r).get(c) : "";
+                byte expected = cell.isEmpty() ? LevelData.EMPTY : (byte) cell.charAt(0);
+                if (LevelData.isSpawn(expected)) {
+                    spawns++;
+                    expected = LevelData.EMPTY;
+                }
+                assertEquals("case (" + c + ", " + r + ")", expected, level.getTile(c, r));
+            }
+        }
+        assertEquals(spawns, level.getSpawnCount());
+        return level;
+    }
+
+    private Path write(byte[] content) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, content);
+        return file;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,73 @@
+package game.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+//Tests des niveaux compilés : écriture puis relecture, et limites de l'en-tête
+public class LevelFileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        LevelData level = LevelData.fromTiles(4, 2, "xPbxo..c".getBytes());
+        Path file = folder.newFile("level.lvl").toPath();
+        LevelFile.write(level, file);
+        LevelData read = LevelFile.read(file.toUri());
+
+        assertEquals(4, read.getWidth());
+        assertEquals(2, read.getHeight());
+        assertEquals(3, read.getSpawnCount());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(level.getSpawnType(i), read.getSpawnType(i));
+            assertEquals(level.getSpawnColumn(i), read.getSpawnColumn(i));
+            assertEquals(level.getSpawnRow(i), read.getSpawnRow(i));
+        }
+        for (int row = 0; row < 2; row++) {
+            for (int column = 0; column < 4; column++) {
+                assertEquals(level.getTile(column, row), read.getTile(column, row));
+            }
+        }
+    }
+
+    @Test
+    public void testWriteRejectsTooManySpawns() throws IOException {
+        //Une ligne entière de départs, un de plus que ce que l'en-tête peut représenter
+        byte[] tiles = new byte[LevelFile.MAX_SPAWN_COUNT + 1];
+        Arrays.fill(tiles, LevelData.PINKY);
+        LevelData level = LevelData.fromTiles(tiles.length, 1, tiles);
+        Path file = folder.getRoot().toPath().resolve("too_many.lvl");
+        try {
+            LevelFile.write(level, file);
+            fail("Le nombre de départs aurait dû être refusé");
+        } catch (IllegalArgumentException expected) {
+            assertFalse(Files.exists(file));
+        }
+    }
+
+    @Test
+    public void testWriteAcceptsMaxSpawns() throws IOException {
+        byte[] tiles = new byte[LevelFile.MAX_SPAWN_COUNT];
+        Arrays.fill(tiles, LevelData.PINKY);
+        Path file = folder.newFile("max.lvl").toPath();
+        LevelFile.write(LevelData.fromTiles(tiles.length, 1, tiles), file);
+        assertEquals(LevelFile.MAX_SPAWN_COUNT, LevelFile.read(file.toUri()).getSpawnCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRejectsSpawnTableLargerThanFile() throws IOException {
+        //En-tête valide annonçant 65535 départs, sans table ni grille
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putInt(0x504D4C56).putShort((short) 1).putShort((short) 0xFFFF).putInt(1).putInt(1);
+        buffer.flip();
+        LevelFile.read(buffer);
+    }
+}
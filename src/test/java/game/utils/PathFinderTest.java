@@ -0,0 +1,88 @@
+package game.utils;
+
+import game.Game;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.SplittableRandom;
+
+//Tests du service de recherche de chemin : avec la table des distances du champ de navigation, et avec A* et son cache (champ de navigation sans table)
+public class PathFinderTest {
+    private static WallGrid wallGrid;
+
+    @BeforeClass
+    public static void loadLevel() {
+        wallGrid = new Game().getWallGrid();
+    }
+
+    @Test
+    public void testPrecomputedFieldLengthsMatchDistances() {
+        NavigationField field = new NavigationField(wallGrid, false, NavigationField.DEFAULT_MEMORY_BUDGET);
+        assertTrue(field.isPrecomputed());
+        checkAgainstField(new PathFinder(field), field);
+    }
+
+    @Test
+    public void testSearchLengthsMatchDistances() {
+        //Budget d'une seule ligne : pas de table complète, les chemins sont cherchés par A*
+        NavigationField field = new NavigationField(wallGrid, true, 1);
+        assertFalse(field.isPrecomputed());
+        PathFinder pathFinder = new PathFinder(field);
+        checkAgainstField(pathFinder, field);
+        assertTrue(pathFinder.getCacheHits() > 0);
+    }
+
+    @Test
+    public void testSmallCacheIsClearedAndStillCorrect() {
+        NavigationField field = new NavigationField(wallGrid, false, 1);
+        checkAgainstField(new PathFinder(field, 8), field);
+    }
+
+    @Test
+    public void testPathIsReused() {
+        NavigationField field = new NavigationField(wallGrid, false, NavigationField.DEFAULT_MEMORY_BUDGET);
+        PathFinder pathFinder = new PathFinder(field);
+        PathFinder.Path first = pathFinder.findPath(0, field.getNodeCount() - 1);
+        PathFinder.Path second = pathFinder.findPath(field.getNodeCount() - 1, 0);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testInvalidNodes() {
+        NavigationField field = new NavigationField(wallGrid, false, 1);
+        PathFinder pathFinder = new PathFinder(field);
+        assertEquals(PathFinder.UNREACHABLE, pathFinder.getPathLength(-1, 0));
+        assertNull(pathFinder.findPath(0, -1));
+    }
+
+    //Longueurs égales aux distances du champ de navigation, et chemins formés de noeuds voisins allant du départ à la cible
+    private static void checkAgainstField(PathFinder pathFinder, NavigationField field) {
+        SplittableRandom random = new SplittableRandom(3);
+        int n = field.getNodeCount();
+        for (int i = 0; i < 2000; i++) {
+            int from = random.nextInt(n);
+            int target = random.nextInt(n);
+            int distance = field.getDistance(from, target);
+            assertEquals(distance, pathFinder.getPathLength(from, target));
+            PathFinder.Path path = pathFinder.findPath(from, target);
+            if (distance == NavigationField.UNREACHABLE) {
+                assertNull(path);
+                continue;
+            }
+            assertEquals(distance, path.length());
+            assertEquals(from, path.getNode(0));
+            assertEquals(target, path.getNode(path.length()));
+            for (int k = 0; k < path.length(); k++) {
+                assertTrue(isNeighbor(field, path.getNode(k), path.getNode(k + 1)));
+            }
+        }
+    }
+
+    private static boolean isNeighbor(NavigationField field, int node, int other) {
+        for (int direction = 0; direction < 4; direction++) {
+            if (field.getNeighbor(node, direction) == other) return true;
+        }
+        return false;
+    }
+}